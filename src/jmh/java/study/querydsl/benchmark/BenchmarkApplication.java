@@ -0,0 +1,50 @@
+package study.querydsl.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import study.querydsl.InitMember;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.UserRepository;
+import study.querydsl.service.UserService;
+
+// 벤치마크용 컨텍스트 - 웹 서버 없이 H2 메모리 DB 위에서 리포지토리만 띄운다
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Member.class)
+@ComponentScan(basePackageClasses = QuerydslApplication.class, excludeFilters = @Filter(
+    type = FilterType.ASSIGNABLE_TYPE,
+    classes = {QuerydslApplication.class, InitMember.class, UserService.class}))
+@EnableJpaRepositories(basePackageClasses = UserRepository.class, excludeFilters = @Filter(
+    type = FilterType.ASSIGNABLE_TYPE, classes = UserRepository.class))
+public class BenchmarkApplication {
+
+    private static final String[] DEFAULT_ARGS = {
+        "--spring.profiles.active=bench",
+        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+        "--spring.jpa.properties.hibernate.format_sql=false",
+        "--spring.jpa.properties.hibernate.use_sql_comments=false",
+        "--decorator.datasource.enabled=false",
+        "--querydsl.count-cache.enabled=false",
+        "--logging.level.root=warn"
+    };
+
+    public static ConfigurableApplicationContext start(String... args) {
+        List<String> allArgs = new ArrayList<>(Arrays.asList(DEFAULT_ARGS));
+        allArgs.addAll(Arrays.asList(args));
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(allArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,129 @@
+package study.querydsl.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.InitMember.InitMemberService;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+// 기본 설정과 prod 프로파일(풀/드라이버/하이버네이트 튜닝)의 동시 요청 처리량을 비교한다
+// 커넥션 풀보다 많은 스레드로 돌려 풀 대기 시간도 보조 카운터로 함께 보고한다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    @Param({"default", "prod"})
+    String profile;
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MeterRegistry meterRegistry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "prod".equals(profile)
+            ? BenchmarkApplication.start("--spring.profiles.active=bench,prod")
+            : BenchmarkApplication.start();
+        context.getBean(InitMemberService.class).init(teamCount, memberCount);
+        memberRepository = context.getBean(MemberRepository.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 풀의 acquire 타이머는 모든 스레드의 합계다 - JMH 는 스레드별 값을 더해 보고하므로 이터레이션 증가분을 스레드 수로 나눠 담는다
+    // 평균 대기 시간은 connectionAcquireMillis / connectionAcquires
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PoolCounter {
+
+        public double connectionAcquires;
+        public double connectionAcquireMillis;
+
+        private Timer acquire;
+        private int threads;
+        private long startCount;
+        private double startMillis;
+
+        @Setup(Level.Iteration)
+        public void start(ConnectionPoolBenchmark benchmark, BenchmarkParams params) {
+            acquire = benchmark.meterRegistry.find("hikaricp.connections.acquire").timer();
+            threads = params.getThreads();
+            connectionAcquires = 0;
+            connectionAcquireMillis = 0;
+            if (acquire != null) {
+                startCount = acquire.count();
+                startMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (acquire != null) {
+                connectionAcquires = (double) (acquire.count() - startCount) / threads;
+                connectionAcquireMillis =
+                    (acquire.totalTime(TimeUnit.MILLISECONDS) - startMillis) / threads;
+            }
+        }
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPage(PoolCounter counter) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team" + (char) ('A' + random.nextInt(2)));
+        condition.setAgeGoe(random.nextInt(50));
+        return memberRepository.searchPageComplex(condition, PageRequest.of(random.nextInt(5), 20));
+    }
+
+    // 크기가 제각각인 IN 절 - in_clause_parameter_padding 이 켜지면 SQL 모양이 몇 가지로 줄어든다
+    @Benchmark
+    public List<Member> findByIds(PoolCounter counter) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = 1 + random.nextInt(40);
+        List<Long> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            ids.add(1L + random.nextInt(memberCount));
+        }
+        return memberRepository.findAllById(ids);
+    }
+}
@@ -0,0 +1,95 @@
+package study.querydsl.benchmark;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.MemberTeamDtoProjection.MEMBER_TEAM_DTO;
+import static study.querydsl.repository.MemberTeamDtoProjection.memberTeamDto;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+// 하이버네이트가 넘겨주는 행 배열을 MemberTeamDto 로 바꾸는 비용만 비교한다 (DB, 스프링 컨텍스트 없음)
+// 생성자(@QueryProjection), Projections.bean, Projections.fields, MEMBER_TEAM_DTO, 팀 이름 인턴 순
+// -prof gc 로 돌리면 행당 할당량도 함께 볼 수 있다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param({"1000000"})
+    int rowCount;
+
+    Object[][] rows;
+
+    FactoryExpression<MemberTeamDto> constructor;
+    FactoryExpression<MemberTeamDto> bean;
+    FactoryExpression<MemberTeamDto> fields;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rows = new Object[rowCount][];
+        for (int i = 0; i < rowCount; ++i) {
+            long teamId = i % 10;
+            rows[i] = new Object[]{(long) i, "member" + i, i % 100, teamId, "team" + teamId};
+        }
+
+        constructor = new QMemberTeamDto(member.id, member.username, member.age, team.id,
+            team.name);
+        bean = Projections.bean(MemberTeamDto.class,
+            member.id.as("memberId"), member.username, member.age,
+            team.id.as("teamId"), team.name.as("teamName"));
+        fields = Projections.fields(MemberTeamDto.class,
+            member.id.as("memberId"), member.username, member.age,
+            team.id.as("teamId"), team.name.as("teamName"));
+    }
+
+    @Benchmark
+    public void constructor(Blackhole bh) {
+        map(constructor, bh);
+    }
+
+    @Benchmark
+    public void bean(Blackhole bh) {
+        map(bean, bh);
+    }
+
+    @Benchmark
+    public void fields(Blackhole bh) {
+        map(fields, bh);
+    }
+
+    @Benchmark
+    public void direct(Blackhole bh) {
+        map(MEMBER_TEAM_DTO, bh);
+    }
+
+    @Benchmark
+    public void directInterned(Blackhole bh) {
+        map(memberTeamDto(), bh);
+    }
+
+    private void map(FactoryExpression<MemberTeamDto> projection, Blackhole bh) {
+        for (Object[] row : rows) {
+            bh.consume(projection.newInstance(row));
+        }
+    }
+}
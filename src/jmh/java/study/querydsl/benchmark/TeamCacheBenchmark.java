@@ -0,0 +1,101 @@
+package study.querydsl.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.InitMember.InitMemberService;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.TeamRepository;
+
+// 2차 캐시 on/off 별로 요청 하나(회원 페이지 + 팀 이름 조회 + 팀 회원 순회)가 실행하는 SQL 수를 비교한다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TeamCacheBenchmark {
+
+    @Param({"true", "false"})
+    boolean secondLevelCache;
+
+    @Param({"1000"})
+    int memberCount;
+
+    @Param({"10"})
+    int teamCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TeamRepository teamRepository;
+    TransactionTemplate readOnlyTransaction;
+    Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+            "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+            "--spring.jpa.properties.hibernate.generate_statistics=true");
+        context.getBean(InitMemberService.class).init(teamCount, memberCount);
+        memberRepository = context.getBean(MemberRepository.class);
+        teamRepository = context.getBean(TeamRepository.class);
+        readOnlyTransaction = new TransactionTemplate(
+            context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class)
+            .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SqlCounter {
+
+        public long statements;
+        public long requests;
+    }
+
+    @Benchmark
+    public int memberPageWithTeams(SqlCounter counter) {
+        long before = statistics.getPrepareStatementCount();
+        Integer touched = readOnlyTransaction.execute(status -> {
+            int names = 0;
+            List<Member> page = memberRepository.findAll(PageRequest.of(0, 20)).getContent();
+            for (Member member : page) {
+                names += member.getTeam().getName().length();
+            }
+            Team team = teamRepository.findByName("teamA").orElseThrow(IllegalStateException::new);
+            return names + team.getMembers().size();
+        });
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        counter.requests++;
+        return touched;
+    }
+}
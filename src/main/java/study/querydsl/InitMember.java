@@ -1,14 +1,10 @@
 package study.querydsl;
 
 import javax.annotation.PostConstruct;
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
-import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import study.querydsl.entity.Member;
-import study.querydsl.entity.Team;
+import study.querydsl.service.MemberBulkImportService;
 
 @Profile("local")
 @Component
@@ -23,21 +19,17 @@ public class InitMember {
     }
 
     @Component
-    static class InitMemberService {
+    @RequiredArgsConstructor
+    public static class InitMemberService {
 
-        @PersistenceContext
-        EntityManager em;
+        private final MemberBulkImportService memberBulkImportService;
 
-        @Transactional
         public void init() {
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
-            em.persist(teamA);
-            em.persist(teamB);
-            for (int i = 0; i < 100; ++i) {
-                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                em.persist(new Member("member" + i, i, selectedTeam));
-            }
+            init(2, 100);
+        }
+
+        public void init(int teamCount, int memberCount) {
+            memberBulkImportService.importGenerated(teamCount, memberCount);
         }
     }
 }
@@ -0,0 +1,19 @@
+package study.querydsl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.metrics.StatementCounter;
+
+@Configuration
+public class HibernateConfig {
+
+    // StatementCounter 가 p6spy 로 센 수와 비교할 수 있도록 하이버네이트가 준비한 statement 도 센다
+    // 측정 구간 밖에서는 ThreadLocal 조회 한 번으로 끝난다 - 이미 설정된 inspector 는 덮어쓰지 않는다
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterInspector() {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR,
+            new StatementCounter.Inspector());
+    }
+}
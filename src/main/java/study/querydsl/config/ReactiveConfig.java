@@ -0,0 +1,19 @@
+package study.querydsl.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+
+    // 블로킹 JPA 호출 전용 스케줄러 - 스레드 수와 대기 작업 수 모두 상한이 있어 넘치면 즉시 거절된다
+    @Bean(destroyMethod = "dispose")
+    public Scheduler memberQueryScheduler(
+        @Value("${querydsl.reactive.thread-cap:16}") int threadCap,
+        @Value("${querydsl.reactive.queued-task-cap:1000}") int queuedTaskCap) {
+        return Schedulers.newBoundedElastic(threadCap, queuedTaskCap, "member-query");
+    }
+}
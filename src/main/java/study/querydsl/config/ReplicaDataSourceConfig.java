@@ -0,0 +1,76 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// querydsl.datasource.replica.url 이 있을 때만 primary/replica 라우팅 DataSource 를 만든다
+// 두 커넥션 풀도 빈으로 등록해 종료와 풀 메트릭은 스프링에 맡기고, 타입 주입은 @Primary 라우팅 DataSource 가 받는다
+// 두 풀 모두 spring.datasource.hikari.* 튜닝을 그대로 받고, replica 는 querydsl.datasource.replica.hikari.* 로 덮어쓸 수 있다
+// 풀 이름은 메트릭/JMX 에서 구분되도록 바인딩 뒤에 primary/replica 로 고정한다
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+    private static final String REPLICA_HIKARI_PREFIX = "querydsl.datasource.replica.hikari";
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+        Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        bindHikari(environment, dataSource, HIKARI_PREFIX);
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+        Environment environment,
+        @Value("${querydsl.datasource.replica.url}") String url,
+        @Value("${querydsl.datasource.replica.username:${spring.datasource.username:}}") String username,
+        @Value("${querydsl.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        bindHikari(environment, dataSource, HIKARI_PREFIX, REPLICA_HIKARI_PREFIX);
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        @Value("${querydsl.datasource.replica.max-lag:0s}") Duration maxLag) {
+        return new LazyConnectionDataSourceProxy(
+            new ReplicationRoutingDataSource(primary, replica, maxLag));
+    }
+
+    private static void bindHikari(Environment environment, HikariDataSource dataSource,
+        String... prefixes) {
+        Binder binder = Binder.get(environment);
+        for (String prefix : prefixes) {
+            binder.bind(prefix, Bindable.ofInstance(dataSource));
+        }
+    }
+}
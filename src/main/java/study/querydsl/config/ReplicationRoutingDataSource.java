@@ -0,0 +1,78 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 읽기 전용 트랜잭션은 replica 로, 나머지는 primary 로 보낸다
+// 트랜잭션 시작 시점에는 readOnly 플래그가 아직 바인딩되지 않으므로 반드시 LazyConnectionDataSourceProxy 뒤에 둔다
+// max-lag 가 있으면 같은 스레드에서 쓰기를 커밋한 직후 그 시간 동안은 읽기도 primary 로 보낸다 (자기 쓰기 읽기 보장)
+// 보장 범위는 커밋한 스레드뿐이다 - 같은 요청 안에서 쓰고 바로 읽는 경우만 덮는다
+// 사용자의 다음 HTTP 요청이나 다른 스레드(비동기/리액티브 스케줄러)의 읽기는 replica 로 가므로 max-lag 만큼 늦을 수 있다
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ThreadLocal<Long> lastWriteCommit = new ThreadLocal<>();
+
+    // 트랜잭션마다 커밋 콜백을 한 번만 등록하기 위한 표시 - 조회할 때마다 등록하면 콜백이 쌓인다
+    private final Object writeMarker = new Object();
+
+    private final long maxLagNanos;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.maxLagNanos = maxLag.toNanos();
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return recentlyWritten() ? PRIMARY : REPLICA;
+        }
+        registerWriteCommit();
+        return PRIMARY;
+    }
+
+    private boolean recentlyWritten() {
+        Long lastWrite = lastWriteCommit.get();
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < maxLagNanos) {
+            return true;
+        }
+        lastWriteCommit.remove();
+        return false;
+    }
+
+    private void registerWriteCommit() {
+        if (maxLagNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    lastWriteCommit.set(System.nanoTime());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+                }
+            });
+    }
+}
@@ -0,0 +1,22 @@
+package study.querydsl.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.repository.support.LocalSearchResultCache;
+import study.querydsl.repository.support.SearchResultCache;
+
+@Configuration
+public class SearchCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(SearchResultCache.class)
+    public LocalSearchResultCache searchResultCache(
+        @Value("${querydsl.search-cache.enabled:true}") boolean enabled,
+        @Value("${querydsl.search-cache.max-size:1000}") int maxSize,
+        @Value("${querydsl.search-cache.ttl:1m}") Duration ttl) {
+        return new LocalSearchResultCache(enabled ? maxSize : 0, ttl);
+    }
+}
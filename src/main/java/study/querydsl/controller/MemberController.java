@@ -1,30 +1,57 @@
 package study.querydsl.controller;
 
 
+import java.io.IOException;
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.CursorSlice;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.exception.InvalidRequestException;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.service.MemberExportService;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final MemberJpaRepository memberJpaRepository;
 
     private final MemberRepository memberRepository;
 
+    private final MemberExportService memberExportService;
+
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
         return memberJpaRepository.search(condition);
     }
 
+    @GetMapping("/v1/members/export")
+    public void exportMemberV1(MemberSearchCondition condition,
+        @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+        throws IOException {
+        response.setCharacterEncoding("UTF-8");
+        if ("ndjson".equals(format)) {
+            response.setContentType("application/x-ndjson");
+            memberExportService.exportNdjson(condition, response.getWriter());
+        } else if ("csv".equals(format)) {
+            response.setContentType("text/csv");
+            memberExportService.exportCsv(condition, response.getWriter());
+        } else {
+            throw new InvalidRequestException("Unsupported export format: " + format);
+        }
+    }
+
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageSimple(condition, pageable);
@@ -34,4 +61,14 @@ public class MemberController {
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageComplex(condition, pageable);
     }
+
+    @GetMapping("/v4/members")
+    public CursorSlice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition,
+        Sort sort, @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_SLICE_SIZE);
+        }
+        return memberRepository.searchSlice(condition, sort, cursor, size);
+    }
 }
\ No newline at end of file
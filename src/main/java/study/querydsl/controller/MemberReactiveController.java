@@ -0,0 +1,42 @@
+package study.querydsl.controller;
+
+import java.util.concurrent.RejectedExecutionException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.service.MemberReactiveService;
+
+// MVC 가 Flux/Mono 를 비동기 요청으로 처리하므로 서블릿 스레드는 쿼리를 기다리지 않는다
+@RestController
+@RequiredArgsConstructor
+public class MemberReactiveController {
+
+    private final MemberReactiveService memberReactiveService;
+
+    @GetMapping(value = "/v5/members", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<MemberTeamDto> searchMemberV5(MemberSearchCondition condition) {
+        return memberReactiveService.search(condition);
+    }
+
+    @GetMapping("/v5/members/page")
+    public Mono<Page<MemberTeamDto>> searchMemberPageV5(MemberSearchCondition condition,
+        Pageable pageable) {
+        return memberReactiveService.searchPage(condition, pageable);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleRejected(RejectedExecutionException e) {
+        return "Too many concurrent member queries";
+    }
+}
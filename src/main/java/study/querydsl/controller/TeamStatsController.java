@@ -0,0 +1,36 @@
+package study.querydsl.controller;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.dto.TeamSummaryDto;
+import study.querydsl.exception.InvalidRequestException;
+import study.querydsl.repository.TeamStatsRepository;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamStatsController {
+
+    private static final int MAX_BUCKET_SIZE = 100;
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    @GetMapping("/v1/teams/stats")
+    public List<TeamStatsDto> teamStatsV1(MemberSearchCondition condition,
+        @RequestParam(defaultValue = "10") int bucketSize) {
+        if (bucketSize < 1 || bucketSize > MAX_BUCKET_SIZE) {
+            throw new InvalidRequestException(
+                "bucketSize must be between 1 and " + MAX_BUCKET_SIZE);
+        }
+        return teamStatsRepository.stats(condition, bucketSize);
+    }
+
+    @GetMapping("/v2/teams/stats")
+    public List<TeamSummaryDto> teamStatsV2() {
+        return teamStatsRepository.summaries();
+    }
+}
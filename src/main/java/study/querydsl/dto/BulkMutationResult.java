@@ -0,0 +1,19 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class BulkMutationResult {
+
+    private final long rows;
+    private final int chunks;
+    private final long elapsedMillis;
+
+    public BulkMutationResult(long rows, int chunks, long elapsedMillis) {
+        this.rows = rows;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
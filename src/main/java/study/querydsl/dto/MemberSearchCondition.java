@@ -1,5 +1,7 @@
 package study.querydsl.dto;
 
+import static org.springframework.util.StringUtils.isEmpty;
+
 import lombok.Data;
 
 @Data
@@ -10,4 +12,13 @@ public class MemberSearchCondition {
     private Integer ageGoe;
     private Integer ageLoe;
 
+    // 빈 문자열은 조건이 없는 것과 같으므로 캐시 키 등에서 null 로 맞춰 준다
+    public MemberSearchCondition normalize() {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setUsername(isEmpty(username) ? null : username);
+        normalized.setTeamName(isEmpty(teamName) ? null : teamName);
+        normalized.setAgeGoe(ageGoe);
+        normalized.setAgeLoe(ageLoe);
+        return normalized;
+    }
 }
@@ -0,0 +1,237 @@
+package study.querydsl.dto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// 대량 조회용 컬럼 저장 결과 - 행마다 MemberTeamDto 와 박싱된 Long 을 만들지 않고 기본형 배열에 담는다
+// teamName 은 종류가 적으므로 사전(중복 없는 문자열 배열) + 행별 코드로 저장한다
+// username 은 거의 모두 다르므로 사전을 두면 행마다 맵 엔트리만 늘어난다 - 그냥 배열에 담는다
+// 팀이 없는 행은 teamId 가 NO_TEAM, teamName 이 null 이다
+public final class MemberTeamColumns implements Iterable<MemberTeamColumns.Row> {
+
+    public static final long NO_TEAM = -1L;
+
+    private static final int NULL_CODE = -1;
+
+    private final int size;
+    private final long[] memberIds;
+    private final int[] ages;
+    private final long[] teamIds;
+    private final String[] usernames;
+    private final int[] teamNameCodes;
+    private final String[] teamNames;
+
+    private MemberTeamColumns(Builder builder) {
+        this.size = builder.size;
+        this.memberIds = Arrays.copyOf(builder.memberIds, size);
+        this.ages = Arrays.copyOf(builder.ages, size);
+        this.teamIds = Arrays.copyOf(builder.teamIds, size);
+        this.usernames = Arrays.copyOf(builder.usernames, size);
+        this.teamNameCodes = Arrays.copyOf(builder.teamNameCodes, size);
+        this.teamNames = builder.teamNames.toArray();
+    }
+
+    public static Builder builder() {
+        return new Builder(1024);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long memberId(int row) {
+        return memberIds[check(row)];
+    }
+
+    public String username(int row) {
+        return usernames[check(row)];
+    }
+
+    public int age(int row) {
+        return ages[check(row)];
+    }
+
+    public boolean hasTeam(int row) {
+        return teamIds[check(row)] != NO_TEAM;
+    }
+
+    public long teamId(int row) {
+        return teamIds[check(row)];
+    }
+
+    public String teamName(int row) {
+        return decode(teamNames, teamNameCodes[check(row)]);
+    }
+
+    public int distinctTeamNames() {
+        return teamNames.length;
+    }
+
+    public Row row(int row) {
+        return new Row(check(row));
+    }
+
+    public MemberTeamDto toDto(int row) {
+        return new MemberTeamDto(memberId(row), username(row), age(row),
+            hasTeam(row) ? teamIds[row] : null, teamName(row));
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new Iterator<Row>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new Row(next++);
+            }
+        };
+    }
+
+    private int check(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        }
+        return row;
+    }
+
+    private static String decode(String[] dictionary, int code) {
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+
+    // 한 행을 가리키는 뷰 - 값은 복사하지 않고 배열에서 바로 읽는다
+    public final class Row {
+
+        private final int index;
+
+        private Row(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getMemberId() {
+            return memberIds[index];
+        }
+
+        public String getUsername() {
+            return usernames[index];
+        }
+
+        public int getAge() {
+            return ages[index];
+        }
+
+        public boolean hasTeam() {
+            return teamIds[index] != NO_TEAM;
+        }
+
+        public long getTeamId() {
+            return teamIds[index];
+        }
+
+        public String getTeamName() {
+            return decode(teamNames, teamNameCodes[index]);
+        }
+
+        public MemberTeamDto toDto() {
+            return MemberTeamColumns.this.toDto(index);
+        }
+    }
+
+    public static final class Builder {
+
+        private int size;
+        private long[] memberIds;
+        private int[] ages;
+        private long[] teamIds;
+        private String[] usernames;
+        private int[] teamNameCodes;
+        private final Dictionary teamNames = new Dictionary();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            memberIds = new long[capacity];
+            ages = new int[capacity];
+            teamIds = new long[capacity];
+            usernames = new String[capacity];
+            teamNameCodes = new int[capacity];
+        }
+
+        public Builder add(long memberId, String username, int age, Long teamId,
+            String teamName) {
+            if (size == memberIds.length) {
+                grow();
+            }
+            memberIds[size] = memberId;
+            ages[size] = age;
+            teamIds[size] = teamId == null ? NO_TEAM : teamId;
+            usernames[size] = username;
+            teamNameCodes[size] = teamNames.encode(teamName);
+            size++;
+            return this;
+        }
+
+        public Builder add(MemberTeamDto dto) {
+            return add(dto.getMemberId(), dto.getUsername(), dto.getAge(), dto.getTeamId(),
+                dto.getTeamName());
+        }
+
+        public MemberTeamColumns build() {
+            return new MemberTeamColumns(this);
+        }
+
+        private void grow() {
+            int capacity = memberIds.length + (memberIds.length >> 1);
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamIds = Arrays.copyOf(teamIds, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            teamNameCodes = Arrays.copyOf(teamNameCodes, capacity);
+        }
+    }
+
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = codes.size();
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        private String[] toArray() {
+            String[] values = new String[codes.size()];
+            codes.forEach((value, code) -> values[code] = value);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class TeamStatsDto {
+
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private Double avgAge;
+    private Integer minAge;
+    private Integer maxAge;
+
+    // 나이 구간 시작값 -> 회원 수 (회원이 없는 구간은 빠진다)
+    private SortedMap<Integer, Long> ageHistogram = new TreeMap<>();
+
+    @QueryProjection
+    public TeamStatsDto(Long teamId, String teamName, long memberCount, Double avgAge,
+        Integer minAge, Integer maxAge) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.avgAge = avgAge;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class TeamSummaryDto {
+
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private Double avgAge;
+
+    // 요약 행이 아직 없는 팀은 count/ageSum 이 null 로 온다
+    @QueryProjection
+    public TeamSummaryDto(Long teamId, String teamName, Long memberCount, Long ageSum) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount == null ? 0 : memberCount;
+        this.avgAge = this.memberCount == 0 || ageSum == null
+            ? null : (double) ageSum / this.memberCount;
+    }
+}
@@ -0,0 +1,34 @@
+package study.querydsl.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 팀별 회원 수/나이 합 요약 - TeamStatsListener 가 증분으로, TeamStatsReconciler 가 주기적으로 전체를 맞춘다
+// 평균은 합과 수로 계산하므로 회원이 바뀔 때 다시 읽을 필요가 없다
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStats {
+
+    @Id
+    private Long teamId;
+
+    private long memberCount;
+
+    private long ageSum;
+
+    public TeamStats(Long teamId, long memberCount, long ageSum) {
+        this.teamId = teamId;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+    }
+
+    public Double getAvgAge() {
+        return memberCount == 0 ? null : (double) ageSum / memberCount;
+    }
+}
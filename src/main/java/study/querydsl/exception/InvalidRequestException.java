@@ -0,0 +1,14 @@
+package study.querydsl.exception;
+
+// 클라이언트가 보낸 값(커서, 페이지 크기, 정렬 등)이 잘못된 경우 - ApiExceptionHandler 가 이것만 400 으로 바꾼다
+// 하이버네이트/Querydsl 내부나 프로그래밍 오류에서 나온 IllegalArgumentException 은 그대로 500 이 된다
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
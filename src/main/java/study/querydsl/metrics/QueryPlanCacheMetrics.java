@@ -0,0 +1,68 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.Field;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.query.spi.QueryPlanCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// 하이버네이트 JPQL -> SQL 변환 결과(쿼리 계획) 캐시의 적중률과 크기
+// 적중/미스는 hibernate.generate_statistics 가 켜져 있을 때만 집계되므로 그때만 등록한다
+// 크기는 공개 API 가 없어 내부 맵을 읽고, 읽을 수 없으면 게이지를 등록하지 않는다
+// 교체 수는 따로 집계되지 않는다 - 미스 수와 크기로 근사하면 통계 초기화 때 줄어들고 네이티브/필터 계획도 섞이므로
+// 내보내지 않는다. 크기가 max.size 에 붙어 있는데 미스가 계속 늘면 교체가 일어나고 있는 것이다
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics",
+    havingValue = "true")
+public class QueryPlanCacheMetrics implements MeterBinder {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final int maxSize;
+
+    public QueryPlanCacheMetrics(EntityManagerFactory entityManagerFactory,
+        @Value("${spring.jpa.properties.hibernate.query.plan_cache_max_size:2048}") int maxSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = sessionFactory.getStatistics();
+        FunctionCounter.builder("hibernate.query.plan.cache.requests", statistics,
+            Statistics::getQueryPlanCacheHitCount)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("hibernate.query.plan.cache.requests", statistics,
+            Statistics::getQueryPlanCacheMissCount)
+            .tag("result", "miss").register(registry);
+        Gauge.builder("hibernate.query.plan.cache.max.size", () -> maxSize)
+            .register(registry);
+
+        Map<?, ?> plans = planMap(sessionFactory.getQueryPlanCache());
+        if (plans == null) {
+            return;
+        }
+        Gauge.builder("hibernate.query.plan.cache.size", plans, Map::size)
+            .register(registry);
+    }
+
+    public static Map<?, ?> planMap(QueryPlanCache queryPlanCache) {
+        try {
+            Field field = QueryPlanCache.class.getDeclaredField("queryPlanCache");
+            field.setAccessible(true);
+            return (Map<?, ?>) field.get(queryPlanCache);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("query plan cache size is not available: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package study.querydsl.metrics;
+
+import java.util.function.Supplier;
+
+// 현재 스레드에서 실행 중인 논리 쿼리 이름 - SQL 메트릭의 query 태그로 쓰인다
+public final class QueryTag {
+
+    public static final String UNNAMED = "unnamed";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private QueryTag() {
+    }
+
+    public static Scope tag(String name) {
+        String previous = CURRENT.get();
+        CURRENT.set(name);
+        return new Scope(previous);
+    }
+
+    public static <T> T tagged(String name, Supplier<T> work) {
+        try (Scope ignored = tag(name)) {
+            return work.get();
+        }
+    }
+
+    public static String current() {
+        String name = CURRENT.get();
+        return name == null ? UNNAMED : name;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package study.querydsl.metrics;
+
+// 샘플링된 요청을 처리하는 스레드에만 존재한다 - 없으면 리스너는 아무것도 하지 않는다
+public final class SqlMetricsContext {
+
+    private static final ThreadLocal<SqlMetricsContext> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+
+    private SqlMetricsContext() {
+    }
+
+    static SqlMetricsContext start() {
+        SqlMetricsContext context = new SqlMetricsContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static SqlMetricsContext current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted() {
+        statements++;
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    long drainRows() {
+        long read = rows;
+        rows = 0;
+        return read;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+}
@@ -0,0 +1,65 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+// sample-rate 비율의 요청에만 SQL 메트릭 컨텍스트를 연다 (0 이면 꺼짐)
+// statement 수가 statement-threshold 를 넘는 요청은 N+1 의심으로 경고 로그를 남긴다
+@Slf4j
+@Component
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final double sampleRate;
+    private final long statementThreshold;
+
+    public SqlMetricsFilter(MeterRegistry registry,
+        @Value("${querydsl.sql-metrics.sample-rate:0}") double sampleRate,
+        @Value("${querydsl.sql-metrics.statement-threshold:20}") long statementThreshold) {
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+        this.statementThreshold = statementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        SqlMetricsContext context = SqlMetricsContext.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlMetricsContext.clear();
+            String uri = uri(request);
+            long statements = context.getStatements();
+            DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("JDBC statements per sampled HTTP request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(statements);
+            if (statements > statementThreshold) {
+                log.warn("{} {} executed {} statements (threshold {})",
+                    request.getMethod(), uri, statements, statementThreshold);
+            }
+        }
+    }
+
+    private String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
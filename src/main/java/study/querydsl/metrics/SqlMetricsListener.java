@@ -0,0 +1,73 @@
+package study.querydsl.metrics;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+// p6spy 가 감싼 모든 JDBC 호출을 받지만, 샘플링된 스레드가 아니면 ThreadLocal 조회 한 번으로 끝난다
+@Component
+public class SqlMetricsListener extends SimpleJdbcEventListener {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> errorTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    public SqlMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation,
+        long timeElapsedNanos, SQLException e) {
+        StatementCounter.statementExecuted();
+        SqlMetricsContext context = SqlMetricsContext.current();
+        if (context == null) {
+            return;
+        }
+        context.statementExecuted();
+        timer(QueryTag.current(), e == null).record(timeElapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation,
+        long timeElapsedNanos, boolean hasNext, SQLException e) {
+        SqlMetricsContext context = SqlMetricsContext.current();
+        if (context != null && hasNext) {
+            context.rowRead();
+        }
+    }
+
+    @Override
+    public void onAfterResultSetClose(ResultSetInformation resultSetInformation, SQLException e) {
+        SqlMetricsContext context = SqlMetricsContext.current();
+        if (context == null) {
+            return;
+        }
+        rowSummaries.computeIfAbsent(QueryTag.current(), query ->
+            DistributionSummary.builder("sql.query.rows")
+                .description("Rows read per result set")
+                .tag("query", query)
+                .register(registry))
+            .record(context.drainRows());
+    }
+
+    private Timer timer(String query, boolean success) {
+        ConcurrentMap<String, Timer> timers = success ? successTimers : errorTimers;
+        return timers.computeIfAbsent(query, name -> Timer.builder("sql.query")
+            .description("JDBC statement latency per logical query")
+            .tag("query", name)
+            .tag("outcome", success ? "success" : "error")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+}
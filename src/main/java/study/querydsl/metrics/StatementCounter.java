@@ -0,0 +1,87 @@
+package study.querydsl.metrics;
+
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// p6spy 를 거쳐 실행된 JDBC statement 수를 현재 스레드 기준으로 센다 - 중첩 호출은 바깥 구간에도 합산된다
+// 데코레이터가 꺼져 있으면 항상 0 이 되어 N+1 검증이 의미 없이 통과한다
+// 그래서 하이버네이트가 준비한 statement 도 Inspector 로 따로 세고, 구간 안에서 준비된 것이 있는데
+// p6spy 가 하나도 보지 못했으면 실패시킨다 - 다른 구간이나 스레드의 결과와는 섞이지 않는다
+public final class StatementCounter {
+
+    private static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static Counted<Void> run(Runnable work) {
+        return count(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static <T> Counted<T> count(Supplier<T> work) {
+        Frame frame = new Frame(CURRENT.get());
+        CURRENT.set(frame);
+        try {
+            T result = work.get();
+            if (frame.prepared > 0 && frame.statements == 0) {
+                throw new IllegalStateException("Hibernate prepared " + frame.prepared
+                    + " statements but no JDBC statement listener saw them"
+                    + " - is the p6spy datasource decorator enabled?");
+            }
+            return new Counted<>(result, frame.statements);
+        } finally {
+            if (frame.parent == null) {
+                CURRENT.remove();
+            } else {
+                frame.parent.statements += frame.statements;
+                frame.parent.prepared += frame.prepared;
+                CURRENT.set(frame.parent);
+            }
+        }
+    }
+
+    static void statementExecuted() {
+        Frame frame = CURRENT.get();
+        if (frame != null) {
+            frame.statements++;
+        }
+    }
+
+    private static final class Frame {
+
+        private final Frame parent;
+        private long statements;
+        private long prepared;
+
+        private Frame(Frame parent) {
+            this.parent = parent;
+        }
+    }
+
+    // HibernateConfig 가 등록한다 - 다른 inspector 가 설정돼 있으면 준비된 수를 세지 못해 검증도 하지 않는다
+    public static final class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            Frame frame = CURRENT.get();
+            if (frame != null) {
+                frame.prepared++;
+            }
+            return sql;
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Counted<T> {
+
+        private final T result;
+        private final long statements;
+    }
+}
@@ -0,0 +1,85 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.MemberPredicates.filtersTeam;
+import static study.querydsl.repository.MemberPredicates.where;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.BulkMutationResult;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.Querydsl4RepositorySupport;
+import study.querydsl.repository.support.TeamStatsListener;
+
+// 검색 조건에 맞는 회원을 엔티티 로딩 없이 청크 단위로 수정/삭제한다
+// 엔티티 이벤트를 거치지 않으므로 청크마다 수정 전에 팀별 증분을 세어 팀 요약(TeamStats)에 알린다
+@Repository
+public class MemberBulkRepository extends Querydsl4RepositorySupport {
+
+    private final int defaultChunkSize;
+
+    private final TeamStatsListener teamStatsListener;
+
+    public MemberBulkRepository(@Value("${querydsl.bulk-mutation.chunk-size:1000}") int defaultChunkSize,
+        TeamStatsListener teamStatsListener) {
+        super(Member.class);
+        this.defaultChunkSize = defaultChunkSize;
+        this.teamStatsListener = teamStatsListener;
+    }
+
+    public BulkMutationResult addAge(MemberSearchCondition condition, int delta) {
+        return addAge(condition, delta, defaultChunkSize);
+    }
+
+    public BulkMutationResult addAge(MemberSearchCondition condition, int delta, int chunkSize) {
+        return bulkUpdate(member, member.id,
+            queryFactory -> ids(queryFactory, condition), chunkSize,
+            ids -> {
+                for (Tuple row : teamTotals(ids)) {
+                    teamStatsListener.recordDelta(row.get(0, Long.class), 0,
+                        row.get(1, Long.class) * delta);
+                }
+            },
+            update -> update.set(member.age, member.age.add(delta)));
+    }
+
+    public BulkMutationResult delete(MemberSearchCondition condition) {
+        return delete(condition, defaultChunkSize);
+    }
+
+    public BulkMutationResult delete(MemberSearchCondition condition, int chunkSize) {
+        return bulkDelete(member, member.id,
+            queryFactory -> ids(queryFactory, condition), chunkSize,
+            ids -> {
+                for (Tuple row : teamTotals(ids)) {
+                    teamStatsListener.recordDelta(row.get(0, Long.class), -row.get(1, Long.class),
+                        -row.get(2, Number.class).longValue());
+                }
+            });
+    }
+
+    // 청크의 회원을 팀별로 묶은 (팀 id, 회원 수, 나이 합) - 팀이 없는 회원은 빠진다
+    // 하이버네이트는 정수 sum 을 Long 으로 돌려주므로 Number 로 읽는다
+    private List<Tuple> teamTotals(List<Long> ids) {
+        return getQueryFactory()
+            .select(member.team.id, member.count(), member.age.sum())
+            .from(member)
+            .where(member.id.in(ids), member.team.isNotNull())
+            .groupBy(member.team.id)
+            .fetch();
+    }
+
+    private JPAQuery<Long> ids(JPAQueryFactory queryFactory, MemberSearchCondition condition) {
+        JPAQuery<Long> query = queryFactory.select(member.id).from(member);
+        if (filtersTeam(condition)) {
+            query.join(member.team, team);
+        }
+        return where(query, condition);
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import javax.persistence.EntityManager;
+import study.querydsl.entity.Member;
+
+// 호출마다 연관관계를 어떻게 가져올지 선택한다 - LAZY 여도 배치 페치로 쿼리 수는 제한된다
+public enum MemberFetchPlan {
+
+    LAZY(null),
+    WITH_TEAM(Member.GRAPH_TEAM);
+
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    private final String entityGraph;
+
+    MemberFetchPlan(String entityGraph) {
+        this.entityGraph = entityGraph;
+    }
+
+    public <T> JPAQuery<T> applyTo(JPAQuery<T> query, EntityManager em) {
+        return entityGraph == null ? query
+            : query.setHint(FETCH_GRAPH_HINT, em.getEntityGraph(entityGraph));
+    }
+}
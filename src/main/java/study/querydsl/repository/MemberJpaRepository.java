@@ -1,17 +1,22 @@
 package study.querydsl.repository;
 
 import static org.springframework.util.StringUtils.hasText;
-import static org.springframework.util.StringUtils.isEmpty;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.metrics.QueryTag.tagged;
+import static study.querydsl.repository.MemberPredicates.filter;
+import static study.querydsl.repository.MemberTeamDtoProjection.memberTeamDto;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.BooleanBuilder;
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import java.util.List;
 import java.util.Optional;
 import javax.persistence.EntityManager;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
@@ -60,6 +65,17 @@ public class MemberJpaRepository {
             .fetch();
     }
 
+    public List<Member> findAll_Querydsl(MemberFetchPlan fetchPlan) {
+        return fetchPlan.applyTo(queryFactory.selectFrom(member), em).fetch();
+    }
+
+    public List<Member> findByUsername_Querydsl(String username, MemberFetchPlan fetchPlan) {
+        return fetchPlan.applyTo(queryFactory.selectFrom(member), em)
+            .where(member.username.eq(username))
+            .fetch();
+    }
+
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
         BooleanBuilder builder = new BooleanBuilder();
         if (hasText(condition.getUsername())) {
@@ -88,38 +104,35 @@ public class MemberJpaRepository {
     }
 
 
-    private BooleanExpression usernameEq(String username) {
-        return isEmpty(username) ? null : member.username.eq(username);
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return tagged("jpaSearch", () -> searchQuery(queryFactory, condition).fetch());
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return isEmpty(teamName) ? null : team.name.eq(teamName);
+    // 전진 전용 커서로 한 행씩 읽는다 - 트랜잭션 안에서 사용하고 반드시 close 해야 한다
+    public CloseableIterator<MemberTeamDto> searchIterator(MemberSearchCondition condition,
+        int fetchSize) {
+        return searchIterator(queryFactory, condition, fetchSize);
     }
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe == null ? null : member.age.goe(ageGoe);
+    // 스프링 트랜잭션에 묶이지 않은 EntityManager 로 커서를 연다 - EntityManager 와 트랜잭션은 호출자가 관리한다
+    public CloseableIterator<MemberTeamDto> searchIterator(EntityManager entityManager,
+        MemberSearchCondition condition, int fetchSize) {
+        return searchIterator(new JPAQueryFactory(entityManager), condition, fetchSize);
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe == null ? null : member.age.loe(ageLoe);
+    private CloseableIterator<MemberTeamDto> searchIterator(JPAQueryFactory queryFactory,
+        MemberSearchCondition condition, int fetchSize) {
+        return searchQuery(queryFactory, condition)
+            .setHint(QueryHints.FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.READ_ONLY, true)
+            .iterate();
     }
 
-    public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-            .select(new QMemberTeamDto(
-                member.id,
-                member.username,
-                member.age,
-                team.id,
-                team.name))
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(
-                teamNameEq(condition.getTeamName()),
-                usernameEq(condition.getUsername()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
-            .fetch();
+    private JPAQuery<MemberTeamDto> searchQuery(JPAQueryFactory queryFactory,
+        MemberSearchCondition condition) {
+        return filter(queryFactory
+            .select(memberTeamDto())
+            .from(member), condition);
     }
-}
\ No newline at end of file
+}
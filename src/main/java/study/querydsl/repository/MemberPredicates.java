@@ -0,0 +1,99 @@
+package study.querydsl.repository;
+
+import static org.springframework.util.StringUtils.isEmpty;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQuery;
+import study.querydsl.dto.MemberSearchCondition;
+
+// MemberSearchCondition 의 검색 조건을 한 곳에서 만든다
+// 값이 있는 필드 조합(16가지)마다 파라미터로만 이루어진 predicate 를 미리 만들어 두고 값은 쿼리에 따로 바인딩한다
+// 같은 조합이면 항상 같은 식 인스턴스가 쓰이므로 조건 트리를 다시 만들지 않고, JPQL 문자열도 조합별로 하나로 고정된다
+public final class MemberPredicates {
+
+    static final Param<String> USERNAME = new Param<>(String.class, "username");
+    static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+
+    private static final int HAS_USERNAME = 1;
+    private static final int HAS_TEAM_NAME = 1 << 1;
+    private static final int HAS_AGE_GOE = 1 << 2;
+    private static final int HAS_AGE_LOE = 1 << 3;
+
+    private static final Predicate[] SHAPES = new Predicate[16];
+
+    static {
+        for (int mask = 0; mask < SHAPES.length; mask++) {
+            SHAPES[mask] = ExpressionUtils.allOf(
+                (mask & HAS_USERNAME) != 0 ? member.username.eq(USERNAME) : null,
+                (mask & HAS_TEAM_NAME) != 0 ? team.name.eq(TEAM_NAME) : null,
+                (mask & HAS_AGE_GOE) != 0 ? member.age.goe(AGE_GOE) : null,
+                (mask & HAS_AGE_LOE) != 0 ? member.age.loe(AGE_LOE) : null);
+        }
+    }
+
+    private MemberPredicates() {
+    }
+
+    // 조건이 하나도 없으면 null - where 절에서 무시된다
+    public static Predicate shape(MemberSearchCondition condition) {
+        return SHAPES[mask(condition)];
+    }
+
+    public static <T> JPAQuery<T> bind(JPAQuery<T> query, MemberSearchCondition condition) {
+        if (!isEmpty(condition.getUsername())) {
+            query.set(USERNAME, condition.getUsername());
+        }
+        if (!isEmpty(condition.getTeamName())) {
+            query.set(TEAM_NAME, condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            query.set(AGE_GOE, condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            query.set(AGE_LOE, condition.getAgeLoe());
+        }
+        return query;
+    }
+
+    public static <T> JPAQuery<T> where(JPAQuery<T> query, MemberSearchCondition condition) {
+        return bind(query.where(shape(condition)), condition);
+    }
+
+    public static boolean filtersTeam(MemberSearchCondition condition) {
+        return !isEmpty(condition.getTeamName());
+    }
+
+    // 팀 이름 조건은 팀이 없는 회원을 어차피 제외하므로 inner join 으로 바꿔 팀 인덱스부터 탈 수 있게 한다
+    public static <T> JPAQuery<T> joinTeam(JPAQuery<T> query, MemberSearchCondition condition) {
+        return filtersTeam(condition) ? query.join(member.team, team)
+            : query.leftJoin(member.team, team);
+    }
+
+    // 팀 조인과 검색 조건을 함께 붙인다 - 팀 컬럼을 조회하는 쿼리용
+    public static <T> JPAQuery<T> filter(JPAQuery<T> query, MemberSearchCondition condition) {
+        return where(joinTeam(query, condition), condition);
+    }
+
+    private static int mask(MemberSearchCondition condition) {
+        int mask = 0;
+        if (!isEmpty(condition.getUsername())) {
+            mask |= HAS_USERNAME;
+        }
+        if (!isEmpty(condition.getTeamName())) {
+            mask |= HAS_TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            mask |= HAS_AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            mask |= HAS_AGE_LOE;
+        }
+        return mask;
+    }
+}
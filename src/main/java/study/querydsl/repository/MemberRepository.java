@@ -1,6 +1,7 @@
 package study.querydsl.repository;
 
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import study.querydsl.entity.Member;
 
@@ -9,4 +10,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     List<Member> findByUsername(String username);
 
+    @EntityGraph(Member.GRAPH_TEAM)
+    List<Member> findWithTeamByUsername(String username);
+
 }
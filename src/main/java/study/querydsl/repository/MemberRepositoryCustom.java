@@ -3,7 +3,10 @@ package study.querydsl.repository;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.querydsl.dto.CursorSlice;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamColumns;
 import study.querydsl.dto.MemberTeamDto;
 
 
@@ -15,4 +18,9 @@ public interface MemberRepositoryCustom {
 
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
 
+    CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Sort sort, String cursor,
+        int size);
+
+    MemberTeamColumns searchColumns(MemberSearchCondition condition);
+
 }
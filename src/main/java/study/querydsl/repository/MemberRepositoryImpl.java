@@ -1,92 +1,116 @@
 package study.querydsl.repository;
 
-import static org.springframework.util.StringUtils.isEmpty;
+import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
-
+import static study.querydsl.metrics.QueryTag.tagged;
+import static study.querydsl.repository.MemberPredicates.bind;
+import static study.querydsl.repository.MemberPredicates.filter;
+import static study.querydsl.repository.MemberPredicates.shape;
+import static study.querydsl.repository.MemberTeamDtoProjection.memberTeamDto;
+import static study.querydsl.repository.support.CountQueryBuilder.countFrom;
+
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.QueryResults;
-import com.querydsl.core.types.Order;
-import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
-import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import java.util.List;
 import javax.persistence.EntityManager;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
 import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.CursorSlice;
+import study.querydsl.dto.MemberCursor;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamColumns;
 import study.querydsl.dto.MemberTeamDto;
-import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
+import study.querydsl.exception.InvalidRequestException;
+import study.querydsl.repository.support.CountCache;
+import study.querydsl.repository.support.ParallelQueryExecutor;
+import study.querydsl.repository.support.PersistenceContexts;
+import study.querydsl.repository.support.RowProjection;
+import study.querydsl.repository.support.SearchResultCache;
+import study.querydsl.repository.support.SortTranslator;
 
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    // 인덱스가 있는 컬럼만 정렬 키로 허용한다
+    private static final SortTranslator MEMBER_SORT = SortTranslator.builder(member.id)
+        .add("id", member.id)
+        .add("username", member.username)
+        .add("age", member.age)
+        .build();
+
+    // 키셋 커서는 (age, id) 오름차순에 묶여 있다 - 다른 정렬은 조용히 무시하지 않고 거절한다
+    private static final Sort SLICE_SORT = Sort.by(Order.asc("age"), Order.asc("id"));
+
+    private static final int COLUMNS_FETCH_SIZE = 1000;
+
+    private static final RowProjection MEMBER_TEAM_ROW = RowProjection.of(
+        member.id, member.username, member.age, team.id, team.name);
 
     private final JPAQueryFactory queryFactory;
 
-    public MemberRepositoryImpl(EntityManager em) {
-        this.queryFactory = new JPAQueryFactory(em);
-    }
+    private final EntityManager em;
 
+    private final CountCache countCache;
 
-    private BooleanExpression usernameEq(String username) {
-        return isEmpty(username) ? null : member.username.eq(username);
-    }
+    private final SearchResultCache searchResultCache;
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return isEmpty(teamName) ? null : team.name.eq(teamName);
-    }
+    private final ParallelQueryExecutor parallelQueryExecutor;
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe == null ? null : member.age.goe(ageGoe);
+    public MemberRepositoryImpl(EntityManager em, CountCache countCache,
+        SearchResultCache searchResultCache, ParallelQueryExecutor parallelQueryExecutor) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.countCache = countCache;
+        this.searchResultCache = searchResultCache;
+        this.parallelQueryExecutor = parallelQueryExecutor;
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe == null ? null : member.age.loe(ageLoe);
+
+    private BooleanExpression afterCursor(MemberCursor cursor) {
+        return cursor == null ? null : member.age.gt(cursor.getAge())
+            .or(member.age.eq(cursor.getAge()).and(member.id.gt(cursor.getMemberId())));
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory.select(new QMemberTeamDto(
-                member.id, member.username, member.age, team.id, team.name
-            ))
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
-            .fetch();
+        if (PersistenceContexts.hasPendingChanges(em)) {
+            return fetchSearch(condition);
+        }
+        return searchResultCache.get(condition, () -> fetchSearch(condition));
+    }
+
+    private List<MemberTeamDto> fetchSearch(MemberSearchCondition condition) {
+        return tagged("search", () -> filter(queryFactory.select(memberTeamDto())
+            .from(member), condition)
+            .fetch());
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition,
         Pageable pageable) {
 
-        QueryResults<MemberTeamDto> results = queryFactory.select(new QMemberTeamDto(
-                member.id,
-                member.username,
-                member.age,
-                team.id,
-                team.name
-            ))
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()))
+        QueryResults<MemberTeamDto> results = tagged("searchPageSimple", () -> filter(
+            queryFactory.select(memberTeamDto())
+            .from(member), condition)
+            .orderBy(MEMBER_SORT.translate(pageable.getSort()))
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
-            .fetchResults();
+            .fetchResults());
 
         List<MemberTeamDto> content = results.getResults();
         long total = results.getTotal();
@@ -94,79 +118,101 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition,
         Pageable pageable) {
 
-        List<MemberTeamDto> content = queryFactory.select(new QMemberTeamDto(
-                member.id,
-                member.username,
-                member.age,
-                team.id,
-                team.name
-            )).from(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()))
+        JPAQuery<MemberTeamDto> contentQuery = filter(
+            queryFactory.select(memberTeamDto()).from(member), condition)
+            .orderBy(MEMBER_SORT.translate(pageable.getSort()))
             .offset(pageable.getOffset())
-            .limit(pageable.getPageSize())
-            .fetch();
+            .limit(pageable.getPageSize());
 
-        long total = queryFactory.select(member)
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()), teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())
-            )
-            .fetchCount();
+        JPAQuery<Member> countQuery = bind(countFrom(queryFactory, member)
+            .leftJoinToOne(member.team, team)
+            .where(shape(condition))
+            .build(), condition);
 
-        return new PageImpl<>(content, pageable, total);
+        return parallelQueryExecutor.page(pageable,
+            () -> tagged("searchPageComplex", contentQuery::fetch),
+            () -> tagged("searchPageComplex.count",
+                () -> countCache.count(condition.normalize(), countQuery::fetchCount)));
     }
 
 
+    @Transactional(readOnly = true)
     public Page<MemberTeamDto> searchPage_countQuery(MemberSearchCondition condition,
         Pageable pageable) {
 
-        List<MemberTeamDto> content = queryFactory.select(new QMemberTeamDto(
-                member.id,
-                member.username,
-                member.age,
-                team.id,
-                team.name
-            )).from(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()))
+        List<MemberTeamDto> content = tagged("searchPage_countQuery", () -> filter(
+            queryFactory.select(memberTeamDto()).from(member), condition)
+            .orderBy(MEMBER_SORT.translate(pageable.getSort()))
             .offset(pageable.getOffset())
             .limit(pageable.getPageSize())
-            .fetch();
-        JPAQuery<Member> countQuery = queryFactory
-            .select(member)
-            .from(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()));
+            .fetch());
+        JPAQuery<Member> countQuery = bind(countFrom(queryFactory, member)
+            .leftJoinToOne(member.team, team)
+            .where(shape(condition))
+            .build(), condition);
 
         return PageableExecutionUtils.getPage(content, pageable,
-            countQuery::fetchCount);
+            () -> tagged("searchPage_countQuery.count",
+                () -> countCache.count(condition.normalize(), countQuery::fetchCount)));
     }
 
-    public List<Member> fromSortToOrderSpecifier(Pageable pageable) {
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Sort sort,
+        String cursor, int size) {
+        if (sort.isSorted() && !sort.equals(SLICE_SORT) && !sort.equals(Sort.by(Order.asc("age")))) {
+            throw new InvalidRequestException("Unsupported sort for cursor paging: " + sort
+                + " - only age,asc (then id,asc) is supported");
+        }
 
-        JPAQuery<Member> query = queryFactory.selectFrom(member);
-        for (Sort.Order o : pageable.getSort()) {
-            PathBuilder pathBuilder = new PathBuilder(member.getType(), member.getMetadata());
-            query.orderBy(new OrderSpecifier<>(o.isAscending() ? Order.ASC : Order.DESC,
-                pathBuilder.get(o.getProperty())));
+        MemberCursor after = hasText(cursor) ? MemberCursor.decode(cursor) : null;
+        List<MemberTeamDto> content = tagged("searchSlice", () -> filter(
+            queryFactory.select(memberTeamDto()).from(member), condition)
+            .where(afterCursor(after))
+            .orderBy(member.age.asc(), member.id.asc())
+            .limit(size + 1)
+            .fetch());
+
+        String nextCursor = null;
+        if (content.size() > size) {
+            content.remove(size);
+            nextCursor = MemberCursor.of(content.get(size - 1)).encode();
         }
-        List<Member> result = query.fetch();
-        return result;
+        return new CursorSlice<>(content, nextCursor);
+    }
+
+    // DTO 나 Tuple 을 만들지 않고 커서로 읽은 행 배열을 바로 컬럼 배열에 쌓는다
+    // 남는 행당 할당은 하이버네이트가 만드는 행 배열과 박싱된 id/age 뿐이다
+    @Override
+    @Transactional(readOnly = true)
+    public MemberTeamColumns searchColumns(MemberSearchCondition condition) {
+        return tagged("searchColumns", () -> {
+            MemberTeamColumns.Builder columns = MemberTeamColumns.builder();
+            try (CloseableIterator<Object[]> rows = filter(queryFactory
+                .select(MEMBER_TEAM_ROW)
+                .from(member), condition)
+                .setHint(QueryHints.FETCH_SIZE, COLUMNS_FETCH_SIZE)
+                .setHint(QueryHints.READ_ONLY, true)
+                .iterate()) {
+                while (rows.hasNext()) {
+                    Object[] row = rows.next();
+                    columns.add((Long) row[0], (String) row[1], (Integer) row[2], (Long) row[3],
+                        (String) row[4]);
+                }
+            }
+            return columns.build();
+        });
+    }
+
+    public List<Member> fromSortToOrderSpecifier(Pageable pageable) {
+
+        return queryFactory.selectFrom(member)
+            .orderBy(MEMBER_SORT.translate(pageable.getSort()))
+            .fetch();
     }
 
 }
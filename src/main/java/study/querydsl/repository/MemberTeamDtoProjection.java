@@ -0,0 +1,72 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import study.querydsl.dto.MemberTeamDto;
+
+// MemberTeamDto 를 생성자 직접 호출로 만드는 프로젝션
+// QMemberTeamDto(ConstructorExpression) 는 행마다 리플렉션으로 생성자를 호출하고, Projections.bean/fields 는 setter/필드를 리플렉션으로 채운다
+// 하이버네이트가 넘겨주는 행 배열 외에는 DTO 한 개만 할당한다
+public final class MemberTeamDtoProjection extends FactoryExpressionBase<MemberTeamDto> {
+
+    public static final MemberTeamDtoProjection MEMBER_TEAM_DTO = new MemberTeamDtoProjection(null);
+
+    // 쿼리 하나에서 기억하는 팀 수 - 넘으면 나머지 팀 이름은 행마다 그대로 둔다
+    static final int TEAM_NAME_POOL_SIZE = 1024;
+
+    private static final List<Expression<?>> ARGS = Collections.unmodifiableList(Arrays.asList(
+        member.id, member.username, member.age, team.id, team.name));
+
+    private final Map<Long, String> teamNames;
+
+    private MemberTeamDtoProjection(Map<Long, String> teamNames) {
+        super(MemberTeamDto.class);
+        this.teamNames = teamNames;
+    }
+
+    // 같은 팀의 행들이 teamName 문자열 하나를 공유하도록 team.id 별로 인턴한다
+    // 풀은 이 프로젝션(= 쿼리 한 번)에만 속하므로 쿼리마다 새로 만들어 쓴다
+    public static MemberTeamDtoProjection memberTeamDto() {
+        return new MemberTeamDtoProjection(new HashMap<>());
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return ARGS;
+    }
+
+    @Override
+    public MemberTeamDto newInstance(Object... row) {
+        Long teamId = (Long) row[3];
+        return new MemberTeamDto((Long) row[0], (String) row[1], (Integer) row[2],
+            teamId, internTeamName(teamId, (String) row[4]));
+    }
+
+    private String internTeamName(Long teamId, String name) {
+        if (teamNames == null || teamId == null || name == null) {
+            return name;
+        }
+        String pooled = teamNames.get(teamId);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (teamNames.size() < TEAM_NAME_POOL_SIZE) {
+            teamNames.put(teamId, name);
+        }
+        return name;
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+}
@@ -1,25 +1,26 @@
 package study.querydsl.repository;
 
 
-import static org.springframework.util.StringUtils.isEmpty;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.MemberPredicates.where;
 
-import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
 
 @Repository
+@Transactional(readOnly = true)
 public class MemberTestRepository extends Querydsl4RepositorySupport {
 
-    public MemberTestRepository(Class<?> domainClass) {
+    public MemberTestRepository() {
         super(Member.class);
     }
 
@@ -34,30 +35,9 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
             .fetch();
     }
 
-    private BooleanExpression usernameEq(String username) {
-        return isEmpty(username) ? null : member.username.eq(username);
-    }
-
-    private BooleanExpression teamNameEq(String teamName) {
-        return isEmpty(teamName) ? null : team.name.eq(teamName);
-    }
-
-    private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe == null ? null : member.age.goe(ageGoe);
-    }
-
-    private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe == null ? null : member.age.loe(ageLoe);
-    }
-
     public Page<Member> searchPageByApplyPage(MemberSearchCondition condition,
         Pageable pageable) {
-        JPAQuery<Member> query = selectFrom(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe()));
+        JPAQuery<Member> query = where(selectFrom(member).leftJoin(member.team, team), condition);
 
         List<Member> content = getQuerydsl().applyPagination(pageable, query)
             .fetch();
@@ -67,22 +47,22 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
     public Page<Member> applyPagination(MemberSearchCondition condition,
         Pageable pageable) {
         return applyPagination(pageable,
-            contentQuery -> contentQuery.selectFrom(member).leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                    teamNameEq(condition.getTeamName()),
-                    ageGoe(condition.getAgeGoe()),
-                    ageLoe(condition.getAgeLoe())
-                ));
+            contentQuery -> where(contentQuery.selectFrom(member).leftJoin(member.team, team),
+                condition));
     }
 
     public Page<Member> applyPagination2(MemberSearchCondition condition,
         Pageable pageable) {
-        return applyPagination(pageable, contentQuery -> contentQuery.selectFrom(member)
-            .leftJoin(member.team, team)
-            .where(usernameEq(condition.getUsername()),
-                teamNameEq(condition.getTeamName()),
-                ageGoe(condition.getAgeGoe()),
-                ageLoe(condition.getAgeLoe())));
+        return applyPagination(pageable, contentQuery -> where(contentQuery.selectFrom(member)
+            .leftJoin(member.team, team), condition));
     }
-}
 
+    public Page<Member> applyPaginationWithCount(MemberSearchCondition condition,
+        Pageable pageable) {
+        return applyPagination(pageable,
+            contentQuery -> where(contentQuery.selectFrom(member).leftJoin(member.team, team),
+                condition),
+            countQuery -> where(countQuery.selectFrom(member).leftJoin(member.team, team),
+                condition));
+    }
+}
@@ -0,0 +1,24 @@
+package study.querydsl.repository;
+
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import study.querydsl.entity.Team;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "team-by-name")
+    })
+    Optional<Team> findByName(String name);
+
+    @EntityGraph(Team.GRAPH_MEMBERS)
+    @Query("select distinct t from Team t")
+    List<Team> findAllWithMembers();
+
+}
@@ -0,0 +1,137 @@
+package study.querydsl.repository;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.entity.QTeamStats.teamStats;
+import static study.querydsl.metrics.QueryTag.tagged;
+import static study.querydsl.repository.MemberPredicates.where;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.QTeamStatsDto;
+import study.querydsl.dto.QTeamSummaryDto;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.dto.TeamSummaryDto;
+import study.querydsl.entity.TeamStats;
+import study.querydsl.repository.support.TeamStatsListener;
+
+// 팀별 회원 통계를 DB 의 group by 로 계산한다 - 회원 목록을 내려받아 클라이언트에서 집계하지 않도록
+// 팀이 없는 회원은 통계에서 빠진다
+// 검색 조건 없이 회원 수/평균 나이만 필요하면 TeamStats 요약 테이블을 읽는 summaries 를 쓴다 - 팀 수만큼만 읽는다
+@Slf4j
+@Repository
+public class TeamStatsRepository {
+
+    private final EntityManager em;
+
+    private final JPAQueryFactory queryFactory;
+
+    public TeamStatsRepository(EntityManager em) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TeamStatsDto> stats(MemberSearchCondition condition, int bucketSize) {
+        if (bucketSize < 1) {
+            throw new IllegalArgumentException("bucketSize must be positive: " + bucketSize);
+        }
+
+        List<TeamStatsDto> stats = tagged("teamStats", () -> where(queryFactory
+            .select(new QTeamStatsDto(team.id, team.name, member.count(),
+                member.age.avg(), member.age.min(), member.age.max()))
+            .from(member)
+            .join(member.team, team), condition)
+            .groupBy(team.id, team.name)
+            .orderBy(team.name.asc(), team.id.asc())
+            .fetch());
+        if (stats.isEmpty()) {
+            return stats;
+        }
+
+        Map<Long, TeamStatsDto> byTeam = new HashMap<>();
+        stats.forEach(s -> byTeam.put(s.getTeamId(), s));
+
+        // 구간 계산식을 group by 에 넣으면 구간 크기가 select/group by 에 각각 파라미터로 바인딩돼 DB 가 같은 식으로 보지 않는다
+        // (팀, 나이) 로만 묶어 가져오고 구간 합산은 여기서 한다 - 행 수는 팀 수 x 서로 다른 나이 수를 넘지 않는다
+        List<Tuple> ageCounts = tagged("teamStats.ageHistogram", () -> where(queryFactory
+            .select(team.id, member.age, member.count())
+            .from(member)
+            .join(member.team, team), condition)
+            .groupBy(team.id, member.age)
+            .fetch());
+        for (Tuple row : ageCounts) {
+            TeamStatsDto teamStats = byTeam.get(row.get(0, Long.class));
+            if (teamStats == null) {
+                continue;
+            }
+            int bucket = Math.floorDiv(row.get(1, Integer.class), bucketSize) * bucketSize;
+            teamStats.getAgeHistogram().merge(bucket, row.get(2, Long.class), Long::sum);
+        }
+        return stats;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TeamSummaryDto> summaries() {
+        return tagged("teamSummaries", () -> queryFactory
+            .select(new QTeamSummaryDto(team.id, team.name, teamStats.memberCount, teamStats.ageSum))
+            .from(team)
+            .leftJoin(teamStats).on(teamStats.teamId.eq(team.id))
+            .orderBy(team.name.asc(), team.id.asc())
+            .fetch());
+    }
+
+    // 팀 하나의 증분을 요약 행에 더한다 - 행은 만들지 않는다
+    // 행이 없으면(리스너가 생기기 전의 팀 등) 다음 reconcile 이 만들고 센다
+    public void applyDelta(Long teamId, long memberCount, long ageSum) {
+        long updated = queryFactory.update(teamStats)
+            .set(teamStats.memberCount, teamStats.memberCount.add(memberCount))
+            .set(teamStats.ageSum, teamStats.ageSum.add(ageSum))
+            .where(teamStats.teamId.eq(teamId))
+            .execute();
+        if (updated == 0) {
+            log.debug("no team stats row for team {}, leaving it to reconcile", teamId);
+        }
+    }
+
+    // 새 팀의 요약 행을 만든다 - 팀을 만든 트랜잭션이 커밋된 뒤에만 불리므로 같은 행을 두 곳에서 insert 하지 않는다
+    // 그 사이 reconcile 이 먼저 만들었으면 커밋된 회원까지 이미 센 것이므로 그대로 둔다
+    public void create(Long teamId, long memberCount, long ageSum) {
+        if (em.find(TeamStats.class, teamId) == null) {
+            em.persist(new TeamStats(teamId, memberCount, ageSum));
+        }
+    }
+
+    // 요약 테이블 전체를 회원 테이블 기준으로 다시 맞춘다
+    // 팀마다 (team_id, age) 인덱스만 읽는 상관 서브쿼리 두 개로 끝나며 회원 엔티티는 로딩하지 않는다
+    @Transactional
+    public int reconcile() {
+        em.flush();
+        TeamStatsListener.discardPending();
+
+        queryFactory.delete(teamStats)
+            .where(JPAExpressions.selectOne().from(team).where(team.id.eq(teamStats.teamId)).notExists())
+            .execute();
+        List<Long> missing = queryFactory.select(team.id)
+            .from(team)
+            .where(JPAExpressions.selectOne().from(teamStats)
+                .where(teamStats.teamId.eq(team.id)).notExists())
+            .fetch();
+        missing.forEach(teamId -> em.persist(new TeamStats(teamId, 0, 0)));
+        em.flush();
+
+        return em.createQuery("update TeamStats s set"
+            + " s.memberCount = (select count(m) from Member m where m.team.id = s.teamId),"
+            + " s.ageSum = (select coalesce(sum(m.age), 0) from Member m where m.team.id = s.teamId)")
+            .executeUpdate();
+    }
+}
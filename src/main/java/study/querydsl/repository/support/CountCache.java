@@ -0,0 +1,121 @@
+package study.querydsl.repository.support;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import javax.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CountCache {
+
+    private static final String DEFAULT_ESTIMATE_SQL =
+        "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'MEMBER'";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final long estimateThreshold;
+    private final long exactRefreshMillis;
+    private final String estimateSql;
+
+    private final ConcurrentMap<Object, Entry> entries = new ConcurrentHashMap<>();
+
+    public CountCache(EntityManager entityManager, JdbcTemplate jdbcTemplate,
+        @Value("${querydsl.count-cache.enabled:true}") boolean enabled,
+        @Value("${querydsl.count-cache.ttl:30s}") Duration ttl,
+        @Value("${querydsl.count-cache.max-size:10000}") int maxSize,
+        @Value("${querydsl.count-cache.estimate-threshold:0}") long estimateThreshold,
+        @Value("${querydsl.count-cache.exact-refresh:10m}") Duration exactRefresh,
+        @Value("${querydsl.count-cache.estimate-sql:" + DEFAULT_ESTIMATE_SQL + "}") String estimateSql) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+        this.estimateThreshold = estimateThreshold;
+        this.exactRefreshMillis = exactRefresh.toMillis();
+        this.estimateSql = estimateSql;
+    }
+
+    public long count(Object key, LongSupplier exactCount) {
+        if (!enabled || PersistenceContexts.hasPendingChanges(entityManager)) {
+            return exactCount.getAsLong();
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && now < entry.expiresAt) {
+            return entry.count;
+        }
+        Entry refreshed = entry != null && canEstimate(entry, now)
+            ? estimate(entry, now) : exact(exactCount, now);
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            entries.clear();
+        }
+        entries.put(key, refreshed);
+        return refreshed.count;
+    }
+
+    // 만료만 시키고 지우지는 않는다 - 큰 카운트는 남겨둔 선택도(selectivity)로 추정값을 낼 수 있다
+    public void invalidate() {
+        entries.replaceAll((key, entry) -> entry.expire());
+    }
+
+    private boolean canEstimate(Entry entry, long now) {
+        return estimateThreshold > 0
+            && entry.exactCount >= estimateThreshold
+            && entry.tableRows > 0
+            && now < entry.exactExpiresAt;
+    }
+
+    private Entry exact(LongSupplier exactCount, long now) {
+        long count = exactCount.getAsLong();
+        long tableRows = estimateThreshold > 0 && count >= estimateThreshold ? estimateTableRows() : 0;
+        return new Entry(count, now + ttlMillis, count, tableRows, now + exactRefreshMillis);
+    }
+
+    private Entry estimate(Entry anchor, long now) {
+        long tableRows = estimateTableRows();
+        long count = tableRows <= 0 ? anchor.count
+            : Math.round((double) anchor.exactCount * tableRows / anchor.tableRows);
+        return new Entry(count, now + ttlMillis, anchor.exactCount, anchor.tableRows,
+            anchor.exactExpiresAt);
+    }
+
+    private long estimateTableRows() {
+        try {
+            Long rows = jdbcTemplate.queryForObject(estimateSql, Long.class);
+            return rows == null ? 0 : rows;
+        } catch (DataAccessException e) {
+            return 0;
+        }
+    }
+
+    private static class Entry {
+
+        private final long count;
+        private final long expiresAt;
+        private final long exactCount;
+        private final long tableRows;
+        private final long exactExpiresAt;
+
+        private Entry(long count, long expiresAt, long exactCount, long tableRows,
+            long exactExpiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+            this.exactCount = exactCount;
+            this.tableRows = tableRows;
+            this.exactExpiresAt = exactExpiresAt;
+        }
+
+        private Entry expire() {
+            return new Entry(count, 0, exactCount, tableRows, exactExpiresAt);
+        }
+    }
+}
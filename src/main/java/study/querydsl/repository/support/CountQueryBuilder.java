@@ -0,0 +1,193 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// 카운트 쿼리 전용 빌더 - 실제로 사용되는 조건이 참조하지 않는 to-one left join 은 빼고 만든다
+public class CountQueryBuilder<T> {
+
+    // 피연산자가 null 이면 참이 될 수 없는 연산자 - 이런 조건이 걸린 left join 은 inner join 과 같다
+    private static final Set<Operator> NULL_REJECTING = new HashSet<>(Arrays.asList(
+        Ops.EQ, Ops.NE, Ops.LT, Ops.GT, Ops.LOE, Ops.GOE, Ops.BETWEEN, Ops.IN,
+        Ops.LIKE, Ops.STARTS_WITH, Ops.ENDS_WITH, Ops.STRING_CONTAINS));
+
+    private final JPAQueryFactory queryFactory;
+    private final EntityPath<T> from;
+    private final List<ToOneJoin<?>> joins = new ArrayList<>();
+    private final List<Predicate> predicates = new ArrayList<>();
+
+    private CountQueryBuilder(JPAQueryFactory queryFactory, EntityPath<T> from) {
+        this.queryFactory = queryFactory;
+        this.from = from;
+    }
+
+    public static <T> CountQueryBuilder<T> countFrom(JPAQueryFactory queryFactory,
+        EntityPath<T> from) {
+        return new CountQueryBuilder<>(queryFactory, from);
+    }
+
+    // to-one 연관관계의 left join 은 row 수를 바꾸지 않으므로 조건이 참조할 때만 붙인다
+    public <P> CountQueryBuilder<T> leftJoinToOne(EntityPath<P> association, Path<P> alias) {
+        joins.add(new ToOneJoin<>(association, alias));
+        return this;
+    }
+
+    public CountQueryBuilder<T> where(Predicate... conditions) {
+        for (Predicate condition : conditions) {
+            if (condition != null) {
+                predicates.add(condition);
+            }
+        }
+        return this;
+    }
+
+    public JPAQuery<T> build() {
+        Set<Path<?>> referenced = new HashSet<>();
+        for (Predicate predicate : predicates) {
+            predicate.accept(RootPathCollector.INSTANCE, referenced);
+        }
+        List<ToOneJoin<?>> required = new ArrayList<>();
+        for (int i = joins.size() - 1; i >= 0; i--) {
+            ToOneJoin<?> join = joins.get(i);
+            if (referenced.contains(join.alias)) {
+                referenced.add(join.association.getRoot());
+                required.add(0, join);
+            }
+        }
+
+        JPAQuery<T> query = queryFactory.selectFrom(from);
+        for (ToOneJoin<?> join : required) {
+            join.applyTo(query, rejectsNulls(join.alias));
+        }
+        return query.where(predicates.toArray(new Predicate[0]));
+    }
+
+    private boolean rejectsNulls(Path<?> alias) {
+        for (Predicate predicate : predicates) {
+            if (rejectsNulls(predicate, alias)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean rejectsNulls(Expression<?> expression, Path<?> alias) {
+        if (!(expression instanceof Operation)) {
+            return false;
+        }
+        Operation<?> operation = (Operation<?>) ExpressionUtils.extract(expression);
+        if (operation.getOperator() == Ops.AND) {
+            for (Expression<?> arg : operation.getArgs()) {
+                if (rejectsNulls(arg, alias)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (!NULL_REJECTING.contains(operation.getOperator())) {
+            return false;
+        }
+        for (Expression<?> arg : operation.getArgs()) {
+            if (arg instanceof Path && alias.equals(((Path<?>) arg).getRoot())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class ToOneJoin<P> {
+
+        private final EntityPath<P> association;
+        private final Path<P> alias;
+
+        private ToOneJoin(EntityPath<P> association, Path<P> alias) {
+            this.association = association;
+            this.alias = alias;
+        }
+
+        private void applyTo(JPAQuery<?> query, boolean inner) {
+            if (inner) {
+                query.join(association, alias);
+            } else {
+                query.leftJoin(association, alias);
+            }
+        }
+    }
+
+    private static class RootPathCollector implements Visitor<Void, Set<Path<?>>> {
+
+        private static final RootPathCollector INSTANCE = new RootPathCollector();
+
+        @Override
+        public Void visit(Constant<?> expr, Set<Path<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Set<Path<?>> roots) {
+            for (Expression<?> arg : expr.getArgs()) {
+                arg.accept(this, roots);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Set<Path<?>> roots) {
+            for (Expression<?> arg : expr.getArgs()) {
+                arg.accept(this, roots);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Set<Path<?>> roots) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Set<Path<?>> roots) {
+            roots.add(expr.getRoot());
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Set<Path<?>> roots) {
+            if (expr.getMetadata().getWhere() != null) {
+                expr.getMetadata().getWhere().accept(this, roots);
+            }
+            if (expr.getMetadata().getProjection() != null) {
+                expr.getMetadata().getProjection().accept(this, roots);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Set<Path<?>> roots) {
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression) {
+                    ((Expression<?>) arg).accept(this, roots);
+                }
+            }
+            return null;
+        }
+    }
+}
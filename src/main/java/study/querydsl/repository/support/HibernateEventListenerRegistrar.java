@@ -0,0 +1,23 @@
+package study.querydsl.repository.support;
+
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.stereotype.Component;
+
+// 변경 전 상태가 필요한 리스너는 JPA 콜백이 아니라 하이버네이트 이벤트 리스너로 등록한다
+@Component
+public class HibernateEventListenerRegistrar {
+
+    public HibernateEventListenerRegistrar(EntityManagerFactory entityManagerFactory,
+        SearchCacheInvalidator searchCacheInvalidator, TeamStatsListener teamStatsListener) {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, searchCacheInvalidator);
+        registry.appendListeners(EventType.POST_INSERT, teamStatsListener);
+        registry.appendListeners(EventType.POST_UPDATE, teamStatsListener);
+        registry.appendListeners(EventType.POST_DELETE, teamStatsListener);
+    }
+}
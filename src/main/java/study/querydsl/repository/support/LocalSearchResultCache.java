@@ -0,0 +1,174 @@
+package study.querydsl.repository.support;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+// 크기와 TTL 로 제한되는 LRU 캐시 - 키는 정규화된 검색 조건
+// 로딩은 락 밖에서 하므로 그 사이 무효화가 있었으면(generation 이 바뀌었으면) 결과를 저장하지 않는다
+// MemberTeamDto 는 가변이므로 저장할 때와 꺼낼 때 복사한다 - 호출자끼리 같은 인스턴스를 공유하지 않는다
+public class LocalSearchResultCache implements SearchResultCache, MeterBinder {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<MemberSearchCondition, Entry> entries =
+        new LinkedHashMap<>(16, 0.75f, true);
+
+    // entries 락 안에서만 읽고 쓴다
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong expiredEvictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LocalSearchResultCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    @Override
+    public List<MemberTeamDto> get(MemberSearchCondition condition,
+        Supplier<List<MemberTeamDto>> loader) {
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+        MemberSearchCondition key = condition.normalize();
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now < entry.expiresAt) {
+                hits.incrementAndGet();
+                return copy(entry.result);
+            }
+            if (entry != null) {
+                entries.remove(key);
+                expiredEvictions.incrementAndGet();
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        List<MemberTeamDto> result = loader.get();
+        synchronized (entries) {
+            if (loadGeneration != generation) {
+                return result;
+            }
+            entries.put(key, new Entry(copy(result), now + ttlMillis));
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxSize) {
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void evictTeam(Long teamId, String teamName) {
+        synchronized (entries) {
+            generation++;
+            Iterator<Map.Entry<MemberSearchCondition, Entry>> iterator =
+                entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<MemberSearchCondition, Entry> entry = iterator.next();
+                String conditionTeamName = entry.getKey().getTeamName();
+                Entry cached = entry.getValue();
+                boolean affected = conditionTeamName == null
+                    || (teamId != null && cached.teamIds.contains(teamId))
+                    || (teamName == null ? cached.teamIds.isEmpty()
+                    : teamName.equals(conditionTeamName));
+                if (affected) {
+                    iterator.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        synchronized (entries) {
+            generation++;
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return sizeEvictions.get() + expiredEvictions.get() + invalidations.get();
+    }
+
+    private static List<MemberTeamDto> copy(List<MemberTeamDto> rows) {
+        List<MemberTeamDto> copies = new ArrayList<>(rows.size());
+        for (MemberTeamDto row : rows) {
+            copies.add(new MemberTeamDto(row.getMemberId(), row.getUsername(), row.getAge(),
+                row.getTeamId(), row.getTeamName()));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("querydsl.search.cache.requests", hits, AtomicLong::get)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("querydsl.search.cache.requests", misses, AtomicLong::get)
+            .tag("result", "miss").register(registry);
+        FunctionCounter.builder("querydsl.search.cache.evictions", sizeEvictions, AtomicLong::get)
+            .tag("cause", "size").register(registry);
+        FunctionCounter.builder("querydsl.search.cache.evictions", expiredEvictions, AtomicLong::get)
+            .tag("cause", "expired").register(registry);
+        FunctionCounter.builder("querydsl.search.cache.evictions", invalidations, AtomicLong::get)
+            .tag("cause", "invalidated").register(registry);
+        Gauge.builder("querydsl.search.cache.size", this, LocalSearchResultCache::size)
+            .register(registry);
+    }
+
+    private static class Entry {
+
+        private final List<MemberTeamDto> result;
+        private final Set<Long> teamIds = new HashSet<>();
+        private final long expiresAt;
+
+        private Entry(List<MemberTeamDto> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+            for (MemberTeamDto row : result) {
+                if (row.getTeamId() != null) {
+                    teamIds.add(row.getTeamId());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package study.querydsl.repository.support;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.metrics.QueryTag;
+
+// 페이지의 content 쿼리와 count 쿼리를 동시에 실행한다
+// count 는 별도 스레드의 읽기 전용 트랜잭션(= 별도 EntityManager)에서, content 는 호출 스레드에서 실행되므로
+// 엔티티 결과는 호출자의 영속성 컨텍스트에 그대로 남는다
+// 쓰기 트랜잭션 안이면 다른 커넥션에서는 아직 커밋되지 않은 변경이 보이지 않으므로 순차 실행한다
+// count 가 count-timeout 안에 끝나지 않으면 경고만 남기고 같은 count 를 계속 기다린다
+// 호출 스레드에서 다시 세면 첫 count 가 잡고 있는 커넥션/permit 위에 하나를 더 쓰게 되고, 이 경로는 풀이 고갈됐을 때 탄다
+// 대신 count 트랜잭션에 count-query-timeout 을 걸어 기다림의 상한을 둔다 (쿼리 타임아웃 힌트로 전달된다)
+// 병렬 페이지 하나는 커넥션을 두 개 쓰므로 기본은 꺼져 있고, 켜도 동시 count 수는 풀 크기의 절반을 넘지 않는다
+// 그래야 content 쿼리를 잡은 요청들이 풀을 다 차지해 count 가 connection-timeout 까지 기다리는 일이 없다
+@Slf4j
+@Component
+public class ParallelQueryExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate countTransaction;
+    private final boolean enabled;
+    private final Duration countTimeout;
+
+    public ParallelQueryExecutor(PlatformTransactionManager transactionManager,
+        @Value("${querydsl.parallel-query.enabled:false}") boolean enabled,
+        @Value("${querydsl.parallel-query.max-concurrency:8}") int maxConcurrency,
+        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+        @Value("${querydsl.parallel-query.count-timeout:2s}") Duration countTimeout,
+        @Value("${querydsl.parallel-query.count-query-timeout:30s}") Duration countQueryTimeout) {
+        maxConcurrency = Math.min(maxConcurrency, maximumPoolSize / 2);
+        this.enabled = enabled && maxConcurrency > 0;
+        this.countTimeout = countTimeout;
+        this.permits = new Semaphore(Math.max(maxConcurrency, 1));
+        this.executor = this.enabled ? createExecutor(maxConcurrency) : null;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.countTransaction = new TransactionTemplate(transactionManager, readOnlyTransaction);
+        this.countTransaction.setTimeout((int) Math.max(countQueryTimeout.getSeconds(), 1));
+    }
+
+    // JDK 21+ 이면 가상 스레드, 아니면 고정 크기 스레드 풀 - 어느 쪽이든 동시 실행 수는 세마포어가 제한한다
+    private static ExecutorService createExecutor(int maxConcurrency) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            log.info("parallel query executor uses virtual threads");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("parallel-query-");
+            threadFactory.setDaemon(true);
+            return Executors.newFixedThreadPool(maxConcurrency, threadFactory);
+        }
+    }
+
+    public <T> Page<T> page(Pageable pageable, Supplier<List<T>> content, LongSupplier count) {
+        if (!canRunParallel() || !permits.tryAcquire()) {
+            return PageableExecutionUtils.getPage(content.get(), pageable, count);
+        }
+
+        CompletableFuture<Long> total;
+        try {
+            total = submit(count);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        List<T> result;
+        try {
+            result = readOnlyIfNoTransaction(content);
+        } catch (RuntimeException e) {
+            // 아직 시작 전이면 실행되지 않는다 - 이미 실행 중인 count 는 쿼리 타임아웃 안에 끝나고 permit 을 돌려준다
+            total.cancel(false);
+            throw e;
+        }
+        Page<T> page = PageableExecutionUtils.getPage(result, pageable,
+            () -> join(total));
+        total.cancel(false);
+        return page;
+    }
+
+    private boolean canRunParallel() {
+        return enabled && !(TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private CompletableFuture<Long> submit(LongSupplier count) {
+        String queryName = QueryTag.current();
+        return CompletableFuture.supplyAsync(() -> {
+            try (QueryTag.Scope ignored = QueryTag.tag(queryName)) {
+                return countTransaction.execute(status -> count.getAsLong());
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    private <R> R readOnlyIfNoTransaction(Supplier<R> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        return readOnlyTransaction.execute(status -> work.get());
+    }
+
+    private long join(CompletableFuture<Long> future) {
+        try {
+            try {
+                return future.get(countTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("parallel count did not finish within {}, still waiting for it",
+                    countTimeout);
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for count query", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
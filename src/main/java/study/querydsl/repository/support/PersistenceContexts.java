@@ -0,0 +1,14 @@
+package study.querydsl.repository.support;
+
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public abstract class PersistenceContexts {
+
+    // 아직 flush 되지 않은 변경이 있으면 캐시된 결과가 현재 트랜잭션과 맞지 않을 수 있다
+    public static boolean hasPendingChanges(EntityManager entityManager) {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && entityManager.unwrap(Session.class).isDirty();
+    }
+}
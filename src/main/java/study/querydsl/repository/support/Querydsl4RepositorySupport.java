@@ -3,11 +3,15 @@ package study.querydsl.repository.support;
 
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,7 +23,11 @@ import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.data.querydsl.SimpleEntityPathResolver;
 import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
+import study.querydsl.dto.BulkMutationResult;
 
 @Repository
 public abstract class Querydsl4RepositorySupport {
@@ -30,6 +38,9 @@ public abstract class Querydsl4RepositorySupport {
 
     private EntityManager entityManager;
     private JPAQueryFactory queryFactory;
+    private ParallelQueryExecutor parallelQueryExecutor;
+    private TransactionTemplate transactionTemplate;
+    private SearchCacheInvalidator searchCacheInvalidator;
 
     public Querydsl4RepositorySupport(Class<?> domainClass) {
         Assert.notNull(domainClass, "Domain class must not be null!");
@@ -49,11 +60,29 @@ public abstract class Querydsl4RepositorySupport {
         this.queryFactory = new JPAQueryFactory(entityManager);
     }
 
+    @Autowired
+    public void setParallelQueryExecutor(ParallelQueryExecutor parallelQueryExecutor) {
+        this.parallelQueryExecutor = parallelQueryExecutor;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Autowired
+    public void setSearchCacheInvalidator(SearchCacheInvalidator searchCacheInvalidator) {
+        this.searchCacheInvalidator = searchCacheInvalidator;
+    }
+
     @PostConstruct
     public void validate() {
         Assert.notNull(entityManager, "EntityManager must not be null!");
         Assert.notNull(querydsl, "Querydsl must not be null!");
         Assert.notNull(queryFactory, "QueryFactory must not be null!");
+        Assert.notNull(parallelQueryExecutor, "ParallelQueryExecutor must not be null!");
+        Assert.notNull(transactionTemplate, "TransactionTemplate must not be null!");
+        Assert.notNull(searchCacheInvalidator, "SearchCacheInvalidator must not be null!");
     }
 
     protected JPAQueryFactory getQueryFactory() {
@@ -85,15 +114,105 @@ public abstract class Querydsl4RepositorySupport {
             jpaQuery::fetchCount);
     }
 
+    // querydsl.parallel-query.enabled 이면 content 와 count 를 동시에 실행한다
+    // 페이지 지연이 두 쿼리의 합이 아니라 느린 쪽 하나로 줄어든다 - 꺼져 있거나 쓰기 트랜잭션 안이면 순차 실행
     protected <T> Page<T> applyPagination(Pageable pageable,
         Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory,
         JPAQuery> countQuery) {
-        JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
-        List<T> content = getQuerydsl().applyPagination(pageable,
-            jpaContentQuery).fetch();
-        JPAQuery countResult = countQuery.apply(getQueryFactory());
-        return PageableExecutionUtils.getPage(content, pageable,
-            countResult::fetchCount);
+        return parallelQueryExecutor.page(pageable,
+            () -> getQuerydsl().applyPagination(pageable,
+                contentQuery.apply(getQueryFactory())).fetch(),
+            () -> countQuery.apply(getQueryFactory()).fetchCount());
+    }
+
+    // 대상 id 를 키셋 방식으로 chunkSize 개씩 읽고 id IN (...) 으로 수정한다 - 엔티티는 로딩하지 않는다
+    // 조인이 필요한 조건은 idQuery 에 두고, 수정 절에는 id 조건만 붙는다
+    protected BulkMutationResult bulkUpdate(EntityPath<?> entity, NumberPath<Long> id,
+        Function<JPAQueryFactory, JPAQuery<Long>> idQuery, int chunkSize,
+        Consumer<JPAUpdateClause> assignments) {
+        return bulkUpdate(entity, id, idQuery, chunkSize, ids -> {
+        }, assignments);
+    }
+
+    // beforeChunk 는 청크 트랜잭션 안에서 수정 직전에 그 청크의 id 로 불린다 - 변경 전 값이 필요한 후처리용
+    protected BulkMutationResult bulkUpdate(EntityPath<?> entity, NumberPath<Long> id,
+        Function<JPAQueryFactory, JPAQuery<Long>> idQuery, int chunkSize,
+        Consumer<List<Long>> beforeChunk, Consumer<JPAUpdateClause> assignments) {
+        return bulkMutate(entity, id, idQuery, chunkSize, ids -> {
+            beforeChunk.accept(ids);
+            JPAUpdateClause update = getQueryFactory().update(entity).where(id.in(ids));
+            assignments.accept(update);
+            return update.execute();
+        });
+    }
+
+    protected BulkMutationResult bulkDelete(EntityPath<?> entity, NumberPath<Long> id,
+        Function<JPAQueryFactory, JPAQuery<Long>> idQuery, int chunkSize) {
+        return bulkDelete(entity, id, idQuery, chunkSize, ids -> {
+        });
+    }
+
+    protected BulkMutationResult bulkDelete(EntityPath<?> entity, NumberPath<Long> id,
+        Function<JPAQueryFactory, JPAQuery<Long>> idQuery, int chunkSize,
+        Consumer<List<Long>> beforeChunk) {
+        return bulkMutate(entity, id, idQuery, chunkSize, ids -> {
+            beforeChunk.accept(ids);
+            return getQueryFactory().delete(entity).where(id.in(ids)).execute();
+        });
     }
-}
 
+    // 호출자 트랜잭션이 있으면 그 안에서, 없으면 청크마다 커밋한다
+    // 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 시작 전에 flush, 끝난 뒤 clear 하고 캐시를 비운다
+    private BulkMutationResult bulkMutate(EntityPath<?> entity, NumberPath<Long> id,
+        Function<JPAQueryFactory, JPAQuery<Long>> idQuery, int chunkSize,
+        ToLongFunction<List<Long>> mutation) {
+        Assert.isTrue(chunkSize > 0, "chunkSize must be positive");
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (inTransaction) {
+            getEntityManager().flush();
+        }
+
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        int chunks = 0;
+        Long lastId = null;
+        try {
+            while (true) {
+                Long after = lastId;
+                Chunk chunk = transactionTemplate.execute(status -> {
+                    JPAQuery<Long> query = idQuery.apply(getQueryFactory());
+                    if (after != null) {
+                        query.where(id.gt(after));
+                    }
+                    List<Long> ids = query.orderBy(id.asc()).limit(chunkSize).fetch();
+                    return ids.isEmpty() ? null
+                        : new Chunk(ids.get(ids.size() - 1), mutation.applyAsLong(ids));
+                });
+                if (chunk == null) {
+                    break;
+                }
+                rows += chunk.rows;
+                chunks++;
+                lastId = chunk.lastId;
+            }
+        } finally {
+            if (inTransaction) {
+                getEntityManager().clear();
+            }
+            getEntityManager().getEntityManagerFactory().getCache().evict(entity.getType());
+            searchCacheInvalidator.invalidateAll();
+        }
+        return new BulkMutationResult(rows, chunks, System.currentTimeMillis() - start);
+    }
+
+    private static final class Chunk {
+
+        private final long lastId;
+        private final long rows;
+
+        private Chunk(long lastId, long rows) {
+            this.lastId = lastId;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Visitor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// 하이버네이트가 넘겨주는 행 배열을 그대로 돌려주는 프로젝션 - 여러 컬럼을 select 할 때 행마다 Tuple 을 만들지 않는다
+// 배열 값은 args 순서를 따르고, 읽는 쪽이 타입을 알고 캐스팅한다
+public final class RowProjection extends FactoryExpressionBase<Object[]> {
+
+    private final List<Expression<?>> args;
+
+    private RowProjection(List<Expression<?>> args) {
+        super(Object[].class);
+        this.args = args;
+    }
+
+    public static RowProjection of(Expression<?>... args) {
+        return new RowProjection(Collections.unmodifiableList(Arrays.asList(args)));
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public Object[] newInstance(Object... row) {
+        return row;
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+}
@@ -0,0 +1,152 @@
+package study.querydsl.repository.support;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import lombok.EqualsAndHashCode;
+import org.hibernate.Hibernate;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+// 엔티티 리스너는 EntityManagerFactory 생성 중에 만들어지므로 캐시는 사용할 때 꺼낸다
+// 수정은 JPA @PostUpdate 대신 하이버네이트 PostUpdateEventListener 로 받는다 - 변경 전 상태가 있어야
+// changeTeam(A -> B) 때 B 뿐 아니라 A 로 캐시된 결과도 비울 수 있다 (HibernateEventListenerRegistrar 가 등록)
+@Component
+public class SearchCacheInvalidator implements PostUpdateEventListener {
+
+    private final ObjectProvider<CountCache> countCache;
+    private final ObjectProvider<SearchResultCache> searchResultCache;
+
+    public SearchCacheInvalidator(ObjectProvider<CountCache> countCache,
+        ObjectProvider<SearchResultCache> searchResultCache) {
+        this.countCache = countCache;
+        this.searchResultCache = searchResultCache;
+    }
+
+    @PostPersist
+    @PostRemove
+    public void onChange(Object entity) {
+        onChange(teamKeyOf(entity));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (!(entity instanceof Member || entity instanceof Team)) {
+            return;
+        }
+        TeamKey key = teamKeyOf(entity);
+        onChange(key);
+        if (entity instanceof Member && event.getOldState() != null) {
+            int index = event.getPersister().getEntityMetamodel().getPropertyIndex("team");
+            TeamKey before = teamKeyOf((Team) event.getOldState()[index]);
+            if (!Objects.equals(before.teamId, key.teamId)) {
+                onChange(before);
+            }
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void onChange(TeamKey key) {
+        Set<TeamKey> pending = pendingChanges();
+        if (pending == null) {
+            countCache.getObject().invalidate();
+            evict(key);
+            return;
+        }
+        if (pending.isEmpty()) {
+            countCache.getObject().invalidate();
+        }
+        if (pending.add(key)) {
+            evict(key);
+        }
+    }
+
+    public void invalidateAll() {
+        Set<TeamKey> pending = pendingChanges();
+        if (pending != null) {
+            pending.add(TeamKey.ALL);
+        }
+        countCache.getObject().invalidate();
+        searchResultCache.getObject().evictAll();
+    }
+
+    // 변경 즉시 한 번, 커밋/롤백 후에 한 번 더 비운다 - 트랜잭션 중에 다시 채워진 값을 버리기 위함
+    @SuppressWarnings("unchecked")
+    private Set<TeamKey> pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Set<TeamKey> pending = (Set<TeamKey>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<TeamKey> changes = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(
+                            SearchCacheInvalidator.this);
+                        countCache.getObject().invalidate();
+                        changes.forEach(SearchCacheInvalidator.this::evict);
+                    }
+                });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    private void evict(TeamKey key) {
+        if (key == TeamKey.ALL) {
+            searchResultCache.getObject().evictAll();
+        } else {
+            searchResultCache.getObject().evictTeam(key.teamId, key.teamName);
+        }
+    }
+
+    private TeamKey teamKeyOf(Object entity) {
+        if (entity instanceof Team) {
+            Team team = (Team) entity;
+            return new TeamKey(team.getId(), team.getName());
+        }
+        if (entity instanceof Member) {
+            return teamKeyOf(((Member) entity).getTeam());
+        }
+        return TeamKey.ALL;
+    }
+
+    private TeamKey teamKeyOf(Team team) {
+        if (team == null) {
+            return new TeamKey(null, null);
+        }
+        // 콜백 안에서 지연 로딩을 일으키지 않도록 초기화된 경우에만 이름을 쓴다
+        return new TeamKey(team.getId(), Hibernate.isInitialized(team) ? team.getName() : null);
+    }
+
+    @EqualsAndHashCode
+    private static class TeamKey {
+
+        private static final TeamKey ALL = new TeamKey(null, "*");
+
+        private final Long teamId;
+        private final String teamName;
+
+        private TeamKey(Long teamId, String teamName) {
+            this.teamId = teamId;
+            this.teamName = teamName;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package study.querydsl.repository.support;
+
+import java.util.List;
+import java.util.function.Supplier;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+public interface SearchResultCache {
+
+    List<MemberTeamDto> get(MemberSearchCondition condition, Supplier<List<MemberTeamDto>> loader);
+
+    // teamName 이 null 이면 팀 이름을 모르는 경우로 보고 보수적으로 비운다
+    void evictTeam(Long teamId, String teamName);
+
+    void evictAll();
+}
@@ -0,0 +1,63 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Sort;
+import study.querydsl.exception.InvalidRequestException;
+
+// 허용된 정렬 키만 미리 만들어 둔 OrderSpecifier 로 바꾸고, 항상 유일 키로 마무리해 페이징 순서를 고정한다
+public final class SortTranslator {
+
+    private final Map<String, OrderSpecifier<?>[]> orders;
+    private final OrderSpecifier<?> tiebreaker;
+
+    private SortTranslator(Map<String, OrderSpecifier<?>[]> orders, OrderSpecifier<?> tiebreaker) {
+        this.orders = Collections.unmodifiableMap(orders);
+        this.tiebreaker = tiebreaker;
+    }
+
+    public static Builder builder(ComparableExpressionBase<?> uniqueKey) {
+        return new Builder(uniqueKey);
+    }
+
+    public OrderSpecifier<?>[] translate(Sort sort) {
+        List<OrderSpecifier<?>> specifiers = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            OrderSpecifier<?>[] candidates = orders.get(order.getProperty());
+            if (candidates == null) {
+                throw new InvalidRequestException("Unsupported sort property: " + order.getProperty());
+            }
+            OrderSpecifier<?> specifier = candidates[order.isAscending() ? 0 : 1];
+            specifiers.add(specifier);
+            if (specifier.getTarget().equals(tiebreaker.getTarget())) {
+                return specifiers.toArray(new OrderSpecifier<?>[0]);
+            }
+        }
+        specifiers.add(tiebreaker);
+        return specifiers.toArray(new OrderSpecifier<?>[0]);
+    }
+
+    public static class Builder {
+
+        private final ComparableExpressionBase<?> uniqueKey;
+        private final Map<String, OrderSpecifier<?>[]> orders = new HashMap<>();
+
+        private Builder(ComparableExpressionBase<?> uniqueKey) {
+            this.uniqueKey = uniqueKey;
+        }
+
+        public Builder add(String property, ComparableExpressionBase<?> expression) {
+            orders.put(property, new OrderSpecifier<?>[]{expression.asc(), expression.desc()});
+            return this;
+        }
+
+        public SortTranslator build() {
+            return new SortTranslator(new HashMap<>(orders), uniqueKey.asc());
+        }
+    }
+}
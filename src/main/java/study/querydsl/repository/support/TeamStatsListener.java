@@ -0,0 +1,194 @@
+package study.querydsl.repository.support;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.tuple.entity.EntityMetamodel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamStatsRepository;
+
+// Member 의 팀/나이 변화를 팀별 증분으로 모았다가 커밋된 뒤 별도 트랜잭션에서 TeamStats 에 팀당 한 번씩 반영한다
+// 하이버네이트 이벤트의 변경 전 상태를 쓰므로 트랜잭션 밖에서 읽은 엔티티를 수정해도(open-in-view) 잡힌다
+// 새 팀의 요약 행은 그 팀을 만든 트랜잭션만 만든다 - 다른 트랜잭션이 같은 행을 동시에 insert 하지 않는다
+// 반영이 실패해도 업무 트랜잭션은 이미 커밋됐으므로 경고만 남기고 TeamStatsReconciler 에 맡긴다
+// HibernateEventListenerRegistrar 가 등록한다
+@Slf4j
+@Component
+public class TeamStatsListener implements PostInsertEventListener, PostUpdateEventListener,
+    PostDeleteEventListener {
+
+    private static final Object RESOURCE_KEY = new Object();
+
+    private final ObjectProvider<TeamStatsRepository> teamStatsRepository;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    public TeamStatsListener(ObjectProvider<TeamStatsRepository> teamStatsRepository,
+        ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.teamStatsRepository = teamStatsRepository;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Team) {
+            Changes changes = changes();
+            if (changes != null) {
+                changes.createdTeams.add(((Team) entity).getId());
+            }
+        } else if (entity instanceof Member) {
+            Member member = (Member) entity;
+            recordDelta(teamIdOf(member.getTeam()), 1, member.getAge());
+        }
+    }
+
+    // 분리된 엔티티를 select 없이 update 하면 변경 전 상태가 없다 - 그 경우만 reconcile 에 맡긴다
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member) || event.getOldState() == null) {
+            return;
+        }
+        EntityMetamodel metamodel = event.getPersister().getEntityMetamodel();
+        int teamIndex = metamodel.getPropertyIndex("team");
+        int ageIndex = metamodel.getPropertyIndex("age");
+        Long oldTeamId = teamIdOf((Team) event.getOldState()[teamIndex]);
+        int oldAge = (Integer) event.getOldState()[ageIndex];
+        Long teamId = teamIdOf((Team) event.getState()[teamIndex]);
+        int age = (Integer) event.getState()[ageIndex];
+        if (Objects.equals(oldTeamId, teamId) && oldAge == age) {
+            return;
+        }
+        recordDelta(oldTeamId, -1, -oldAge);
+        recordDelta(teamId, 1, age);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        EntityMetamodel metamodel = event.getPersister().getEntityMetamodel();
+        Object[] deleted = event.getDeletedState();
+        int age = (Integer) deleted[metamodel.getPropertyIndex("age")];
+        recordDelta(teamIdOf((Team) deleted[metamodel.getPropertyIndex("team")]), -1, -age);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    // 엔티티 이벤트를 거치지 않는 벌크 변경이 직접 증분을 알린다 - 현재 트랜잭션이 커밋돼야 반영된다
+    public void recordDelta(Long teamId, long memberCount, long ageSum) {
+        Changes changes = changes();
+        if (changes != null && teamId != null) {
+            changes.deltas.computeIfAbsent(teamId, id -> new Delta()).add(memberCount, ageSum);
+        }
+    }
+
+    // 현재 트랜잭션에서 flush 된 변경까지 다시 센 뒤에 호출한다 - 모아 둔 증분을 또 더하지 않도록 버린다
+    public static void discardPending() {
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (changes != null) {
+            changes.createdTeams.clear();
+            changes.deltas.clear();
+        }
+    }
+
+    // 커밋 때의 flush 에서 처음 이벤트가 와도 afterCommit 은 그때 등록된 동기화까지 부른다
+    private Changes changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (changes == null) {
+            Changes created = new Changes();
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        apply(created);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+                    }
+                });
+            changes = created;
+        }
+        return changes;
+    }
+
+    private void apply(Changes changes) {
+        if (changes.createdTeams.isEmpty() && changes.deltas.isEmpty()) {
+            return;
+        }
+        Map<Long, Delta> deltas = new HashMap<>(changes.deltas);
+        Set<Long> createdTeams = new LinkedHashSet<>(changes.createdTeams);
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager.getObject());
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            TeamStatsRepository repository = teamStatsRepository.getObject();
+            transaction.execute(status -> {
+                for (Long teamId : createdTeams) {
+                    Delta delta = deltas.remove(teamId);
+                    repository.create(teamId, delta == null ? 0 : delta.memberCount,
+                        delta == null ? 0 : delta.ageSum);
+                }
+                deltas.forEach((teamId, delta) -> {
+                    if (!delta.isZero()) {
+                        repository.applyDelta(teamId, delta.memberCount, delta.ageSum);
+                    }
+                });
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("team stats update failed, leaving it to the next reconcile: {}", e.toString());
+        }
+    }
+
+    private static Long teamIdOf(Team team) {
+        return team == null ? null : team.getId();
+    }
+
+    private static class Changes {
+
+        private final Set<Long> createdTeams = new LinkedHashSet<>();
+        private final Map<Long, Delta> deltas = new HashMap<>();
+    }
+
+    private static class Delta {
+
+        private long memberCount;
+        private long ageSum;
+
+        private void add(long memberCount, long ageSum) {
+            this.memberCount += memberCount;
+            this.ageSum += ageSum;
+        }
+
+        private boolean isZero() {
+            return memberCount == 0 && ageSum == 0;
+        }
+    }
+}
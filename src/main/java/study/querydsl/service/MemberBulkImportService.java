@@ -0,0 +1,182 @@
+package study.querydsl.service;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.BulkImportResult;
+import study.querydsl.dto.MemberImportRow;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+// 대량 적재 - commit-size 마다 커밋하고 batch-size 마다 flush/clear 해서 영속성 컨텍스트를 작게 유지한다
+@Slf4j
+@Service
+public class MemberBulkImportService {
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int commitSize;
+
+    public MemberBulkImportService(EntityManager em, PlatformTransactionManager transactionManager,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+        @Value("${querydsl.bulk-import.commit-size:10000}") int commitSize) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.commitSize = commitSize;
+    }
+
+    // username,age,teamName 형식 (첫 줄이 정확히 이 헤더면 건너뛴다)
+    public BulkImportResult importCsv(Reader reader) {
+        return importRows(new CsvRowIterator(new BufferedReader(reader)));
+    }
+
+    public BulkImportResult importGenerated(int teamCount, int memberCount) {
+        return importRows(new Iterator<MemberImportRow>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < memberCount;
+            }
+
+            @Override
+            public MemberImportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int i = next++;
+                String teamName = teamCount <= 26
+                    ? "team" + (char) ('A' + i % teamCount) : "team" + i % teamCount;
+                return new MemberImportRow("member" + i, i % 100, teamName);
+            }
+        });
+    }
+
+    public BulkImportResult importRows(Iterator<MemberImportRow> rows) {
+        long start = System.nanoTime();
+        Map<String, Long> teamIds = new HashMap<>();
+        long imported = 0;
+        while (rows.hasNext()) {
+            imported += transactionTemplate.execute(status -> importChunk(rows, teamIds));
+        }
+        BulkImportResult result = new BulkImportResult(imported,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("imported {} members in {} ms ({} rows/sec)", result.getRows(),
+            result.getElapsedMillis(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private long importChunk(Iterator<MemberImportRow> rows, Map<String, Long> teamIds) {
+        long imported = 0;
+        while (imported < commitSize && rows.hasNext()) {
+            MemberImportRow row = rows.next();
+            Member member = new Member(row.getUsername(), row.getAge());
+            if (hasText(row.getTeamName())) {
+                // changeTeam 은 team.members 컬렉션을 초기화하므로 참조만 걸어준다
+                member.setTeam(teamReference(row.getTeamName(), teamIds));
+            }
+            em.persist(member);
+            if (++imported % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return imported;
+    }
+
+    private Team teamReference(String teamName, Map<String, Long> teamIds) {
+        Long teamId = teamIds.get(teamName);
+        if (teamId != null) {
+            return em.getReference(Team.class, teamId);
+        }
+        List<Team> found = em.createQuery("select t from Team t where t.name = :name", Team.class)
+            .setParameter("name", teamName)
+            .setMaxResults(1)
+            .getResultList();
+        Team team = found.isEmpty() ? new Team(teamName) : found.get(0);
+        if (found.isEmpty()) {
+            em.persist(team);
+        }
+        teamIds.put(teamName, team.getId());
+        return team;
+    }
+
+    private static class CsvRowIterator implements Iterator<MemberImportRow> {
+
+        private static final String HEADER = "username,age,teamname";
+
+        private final BufferedReader reader;
+        private int lineNumber = 0;
+        private String nextLine;
+
+        private CsvRowIterator(BufferedReader reader) {
+            this.reader = reader;
+            this.nextLine = readDataLine();
+            if (nextLine != null && isHeader(nextLine)) {
+                this.nextLine = readDataLine();
+            }
+        }
+
+        // 공백과 대소문자만 무시하고 헤더 줄 전체가 같을 때만 건너뛴다 - username1,... 같은 데이터 행은 남긴다
+        private static boolean isHeader(String line) {
+            return HEADER.equals(line.replaceAll("\\s", "").toLowerCase());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public MemberImportRow next() {
+            if (nextLine == null) {
+                throw new NoSuchElementException();
+            }
+            String[] columns = nextLine.split(",", -1);
+            if (columns.length != 3) {
+                throw new IllegalArgumentException("Invalid member row at line " + lineNumber);
+            }
+            MemberImportRow row;
+            try {
+                row = new MemberImportRow(columns[0].trim(), Integer.parseInt(columns[1].trim()),
+                    columns[2].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid age at line " + lineNumber, e);
+            }
+            nextLine = readDataLine();
+            return row;
+        }
+
+        private String readDataLine() {
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                } while (line != null && line.trim().isEmpty());
+                return line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mysema.commons.lang.CloseableIterator;
+import java.io.IOException;
+import java.io.Writer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+// 결과 전체를 힙에 올리지 않고 커서에서 읽는 대로 응답에 쓴다
+@Service
+public class MemberExportService {
+
+    private static final String CSV_HEADER = "memberId,username,age,teamId,teamName";
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+    private final int flushInterval;
+
+    public MemberExportService(MemberJpaRepository memberJpaRepository, ObjectMapper objectMapper,
+        @Value("${querydsl.export.fetch-size:500}") int fetchSize,
+        @Value("${querydsl.export.flush-interval:1000}") int flushInterval) {
+        this.memberJpaRepository = memberJpaRepository;
+        this.rowWriter = objectMapper.writerFor(MemberTeamDto.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(MemberSearchCondition condition, Writer writer) throws IOException {
+        return export(condition, writer, row -> {
+            rowWriter.writeValue(writer, row);
+            writer.write('\n');
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCsv(MemberSearchCondition condition, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        return export(condition, writer, row -> {
+            writer.write(String.valueOf(row.getMemberId()));
+            writer.write(',');
+            writer.write(csvField(row.getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getAge()));
+            writer.write(',');
+            writer.write(row.getTeamId() == null ? "" : String.valueOf(row.getTeamId()));
+            writer.write(',');
+            writer.write(csvField(row.getTeamName()));
+            writer.write('\n');
+        });
+    }
+
+    private long export(MemberSearchCondition condition, Writer writer, RowWriter rowWriter)
+        throws IOException {
+        long rows = 0;
+        try (CloseableIterator<MemberTeamDto> iterator =
+            memberJpaRepository.searchIterator(condition, fetchSize)) {
+            while (iterator.hasNext()) {
+                rowWriter.write(iterator.next());
+                if (++rows % flushInterval == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+
+        void write(MemberTeamDto row) throws IOException;
+    }
+}
@@ -0,0 +1,122 @@
+package study.querydsl.service;
+
+import com.mysema.commons.lang.CloseableIterator;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+// 블로킹 리포지토리 호출을 전용 스케줄러로 넘겨 요청 스레드를 바로 돌려준다
+// 스트림은 구독자가 요청한 만큼만 커서에서 읽는다
+@Service
+public class MemberReactiveService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+    private final Scheduler memberQueryScheduler;
+    private final int fetchSize;
+
+    public MemberReactiveService(EntityManagerFactory entityManagerFactory,
+        MemberJpaRepository memberJpaRepository, MemberRepository memberRepository,
+        Scheduler memberQueryScheduler,
+        @Value("${querydsl.export.fetch-size:500}") int fetchSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.memberJpaRepository = memberJpaRepository;
+        this.memberRepository = memberRepository;
+        this.memberQueryScheduler = memberQueryScheduler;
+        this.fetchSize = fetchSize;
+    }
+
+    // 커서는 스케줄러 워커에서만 열고 읽고 닫힌다
+    // 취소 신호는 구독자 스레드(요청 스레드)에서 오므로 cancelOn 으로 워커에 넘긴다 - 그렇지 않으면 generate 가
+    // 취소한 스레드에서 바로 정리해 롤백과 커넥션 반환이 요청 스레드에서 일어난다
+    public Flux<MemberTeamDto> search(MemberSearchCondition condition) {
+        return Flux.<MemberTeamDto, SearchCursor>generate(
+            () -> openCursor(condition),
+            (cursor, sink) -> {
+                if (cursor.rows.hasNext()) {
+                    sink.next(cursor.rows.next());
+                } else {
+                    sink.complete();
+                }
+                return cursor;
+            },
+            SearchCursor::close)
+            .subscribeOn(memberQueryScheduler)
+            .cancelOn(memberQueryScheduler)
+            .limitRate(fetchSize);
+    }
+
+    public Mono<Page<MemberTeamDto>> searchPage(MemberSearchCondition condition,
+        Pageable pageable) {
+        return Mono.fromCallable(() -> memberRepository.searchPageComplex(condition, pageable))
+            .subscribeOn(memberQueryScheduler);
+    }
+
+    // 커서는 여러 번의 generate 호출에 걸쳐 열려 있고, 그 사이 같은 워커 스레드에서 다른 작업이 돌 수 있다
+    // 그래서 스레드에 묶이는 스프링 트랜잭션 대신 자체 EntityManager 트랜잭션을 쓰고, 읽기 전용 라우팅은 직접 맞춘다
+    // LazyConnectionDataSourceProxy 는 첫 쿼리에서 실제 커넥션을 꺼내므로 그때까지만 readOnly 플래그를 세운다
+    private SearchCursor openCursor(MemberSearchCondition condition) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            Session session = em.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            EntityTransaction transaction = em.getTransaction();
+            transaction.begin();
+            session.doWork(connection -> connection.setReadOnly(true));
+            return new SearchCursor(em, transaction,
+                memberJpaRepository.searchIterator(em, condition, fetchSize));
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+            throw e;
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        }
+    }
+
+    private static final class SearchCursor {
+
+        private final EntityManager em;
+        private final EntityTransaction transaction;
+        private final CloseableIterator<MemberTeamDto> rows;
+
+        private SearchCursor(EntityManager em, EntityTransaction transaction,
+            CloseableIterator<MemberTeamDto> rows) {
+            this.em = em;
+            this.transaction = transaction;
+            this.rows = rows;
+        }
+
+        private void close() {
+            try {
+                rows.close();
+            } finally {
+                try {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                } finally {
+                    em.close();
+                }
+            }
+        }
+    }
+}
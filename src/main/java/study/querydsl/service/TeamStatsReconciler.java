@@ -0,0 +1,30 @@
+package study.querydsl.service;
+
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import study.querydsl.repository.TeamStatsRepository;
+
+// 리스너가 반영하지 못한 변경(커밋 후 반영 실패, 변경 전 상태 없는 update)을 주기적으로 맞춘다
+// 리스너는 새 팀의 행만 만들므로 기동할 때 한 번 돌려 기존 팀의 행을 채운다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamStatsReconciler {
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${querydsl.team-stats.reconcile-interval:PT1H}",
+        fixedDelayString = "${querydsl.team-stats.reconcile-interval:PT1H}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        int teams = teamStatsRepository.reconcile();
+        log.info("reconciled team stats for {} teams in {} ms", teams,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
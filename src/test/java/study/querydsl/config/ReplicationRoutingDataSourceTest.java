@@ -0,0 +1,108 @@
+package study.querydsl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 서로 다른 H2 메모리 DB 두 개에 각자 이름을 넣어 두고 어느 쪽으로 라우팅됐는지 확인한다
+class ReplicationRoutingDataSourceTest {
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        Fixture fixture = new Fixture("routing", Duration.ZERO);
+
+        assertThat(fixture.readInTransaction(true)).isEqualTo("replica");
+        assertThat(fixture.readInTransaction(false)).isEqualTo("primary");
+        assertThat(fixture.jdbcTemplate.queryForObject("select name from node", String.class))
+            .isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnPrimaryWithinMaxLagAfterWrite() {
+        Fixture fixture = new Fixture("lag", Duration.ofMinutes(1));
+
+        assertThat(fixture.readInTransaction(true)).isEqualTo("replica");
+        fixture.writeInTransaction();
+        assertThat(fixture.readInTransaction(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinPrimary() {
+        Fixture fixture = new Fixture("rollback", Duration.ofMinutes(1));
+
+        fixture.transactionTemplate.execute(status -> {
+            fixture.jdbcTemplate.update("update node set name = name");
+            status.setRollbackOnly();
+            return null;
+        });
+        assertThat(fixture.readInTransaction(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void registersCommitCallbackOncePerTransaction() throws SQLException {
+        Fixture fixture = new Fixture("once", Duration.ofMinutes(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < 3; ++i) {
+                try (Connection ignored = fixture.routing.getConnection()) {
+                    assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+                }
+            }
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    static class Fixture {
+
+        final ReplicationRoutingDataSource routing;
+        final JdbcTemplate jdbcTemplate;
+        final TransactionTemplate transactionTemplate;
+
+        Fixture(String name, Duration maxLag) {
+            this.routing = new ReplicationRoutingDataSource(
+                node(name + "-primary", "primary"), node(name + "-replica", "replica"), maxLag);
+            DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+            this.jdbcTemplate = new JdbcTemplate(lazy);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+        }
+
+        String readInTransaction(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            try {
+                return transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject("select name from node", String.class));
+            } finally {
+                transactionTemplate.setReadOnly(false);
+            }
+        }
+
+        void writeInTransaction() {
+            transactionTemplate.execute(status ->
+                jdbcTemplate.update("update node set name = name"));
+        }
+
+        private static DataSource node(String database, String name) {
+            DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("create table node (name varchar(20))");
+            jdbcTemplate.update("insert into node values (?)", name);
+            return dataSource;
+        }
+    }
+}
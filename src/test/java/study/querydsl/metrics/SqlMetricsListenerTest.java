@@ -0,0 +1,56 @@
+package study.querydsl.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberJpaRepository;
+
+@SpringBootTest
+@Transactional
+class SqlMetricsListenerTest {
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @AfterEach
+    void tearDown() {
+        SqlMetricsContext.clear();
+    }
+
+    @Test
+    void recordsTaggedQueryOnlyWhenSampled() {
+        memberJpaRepository.search(new MemberSearchCondition());
+        assertThat(registry.find("sql.query").tag("query", "jpaSearch").timer()).isNull();
+
+        SqlMetricsContext context = SqlMetricsContext.start();
+        memberJpaRepository.search(new MemberSearchCondition());
+
+        Timer timer = registry.find("sql.query")
+            .tags("query", "jpaSearch", "outcome", "success")
+            .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(context.getStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void nestedTagRestoresPrevious() {
+        try (QueryTag.Scope outer = QueryTag.tag("outer")) {
+            try (QueryTag.Scope inner = QueryTag.tag("inner")) {
+                assertThat(QueryTag.current()).isEqualTo("inner");
+            }
+            assertThat(QueryTag.current()).isEqualTo("outer");
+        }
+        assertThat(QueryTag.current()).isEqualTo(QueryTag.UNNAMED);
+    }
+}
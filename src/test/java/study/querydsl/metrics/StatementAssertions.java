@@ -0,0 +1,16 @@
+package study.querydsl.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import study.querydsl.metrics.StatementCounter.Counted;
+
+public final class StatementAssertions {
+
+    private StatementAssertions() {
+    }
+
+    public static <T> Counted<T> assertAtMost(Counted<T> counted, long max) {
+        assertThat(counted.getStatements()).as("executed statements").isLessThanOrEqualTo(max);
+        return counted;
+    }
+}
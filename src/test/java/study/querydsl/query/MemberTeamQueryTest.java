@@ -1,6 +1,7 @@
 package study.querydsl.query;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.metrics.StatementAssertions.assertAtMost;
 
 import java.util.List;
 import javax.persistence.EntityManager;
@@ -13,6 +14,8 @@ import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.metrics.StatementCounter;
+import study.querydsl.repository.MemberFetchPlan;
 import study.querydsl.repository.MemberJpaRepository;
 
 @SpringBootTest
@@ -75,4 +78,31 @@ class MemberTeamQueryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
-}
\ No newline at end of file
+    // N+1 검출 - team 지연 로딩이 루프 안에서 발생하면 statement 수가 늘어난다
+    @Test
+    void fetchPlanStatementCount() {
+        for (int t = 0; t < 3; ++t) {
+            Team team = new Team("team" + t);
+            em.persist(team);
+            em.persist(new Member("member" + t, 10 + t, team));
+        }
+        em.flush();
+        em.clear();
+
+        long lazy = StatementCounter.run(() -> memberJpaRepository
+            .findAll_Querydsl(MemberFetchPlan.LAZY)
+            .forEach(m -> m.getTeam().getName()))
+            .getStatements();
+        em.clear();
+
+        StatementCounter.Counted<List<Member>> withTeam = assertAtMost(StatementCounter.count(() -> {
+            List<Member> members = memberJpaRepository.findAll_Querydsl(MemberFetchPlan.WITH_TEAM);
+            members.forEach(m -> m.getTeam().getName());
+            return members;
+        }), 1);
+
+        assertThat(withTeam.getResult()).hasSize(3);
+        assertThat(lazy).isGreaterThan(withTeam.getStatements());
+    }
+
+}
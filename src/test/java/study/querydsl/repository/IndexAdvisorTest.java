@@ -0,0 +1,114 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.service.MemberBulkImportService;
+
+// 검색 조건 조합마다 실제로 생성된 SQL 을 H2 EXPLAIN 으로 확인해 풀 스캔이 없는지 검사한다
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "study.querydsl.repository.IndexAdvisorTest$CapturingInspector",
+    "querydsl.search-cache.enabled=false",
+    "querydsl.count-cache.enabled=false"
+})
+@Transactional
+class IndexAdvisorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberBulkImportService memberBulkImportService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchQueriesDoNotScanFullTables() {
+        memberBulkImportService.importGenerated(10, 1000);
+
+        // 조건이 하나도 없는 조합(0)은 전체 조회라 풀 스캔 외의 계획이 있을 수 없다
+        for (int mask = 1; mask < 16; mask++) {
+            MemberSearchCondition condition = conditionFor(mask);
+            CapturingInspector.start();
+            memberRepository.search(condition);
+            memberRepository.searchPageComplex(condition, PageRequest.of(1, 10));
+            List<String> statements = CapturingInspector.stop();
+
+            assertThat(statements).isNotEmpty();
+            for (String sql : statements) {
+                assertThat(explain(sql)).as("plan for %s\n%s", condition, sql)
+                    .doesNotContainIgnoringCase("tableScan");
+            }
+        }
+    }
+
+    private MemberSearchCondition conditionFor(int mask) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if ((mask & 1) != 0) {
+            condition.setUsername("member10");
+        }
+        if ((mask & 2) != 0) {
+            condition.setTeamName("teamB");
+        }
+        if ((mask & 4) != 0) {
+            condition.setAgeGoe(90);
+        }
+        if ((mask & 8) != 0) {
+            condition.setAgeLoe(5);
+        }
+        return condition;
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        static void start() {
+            CAPTURED.set(new ArrayList<>());
+        }
+
+        static List<String> stop() {
+            List<String> captured = CAPTURED.get();
+            CAPTURED.remove();
+            return captured;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = CAPTURED.get();
+            if (captured != null && sql.toLowerCase().contains("from member")) {
+                captured.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.BulkMutationResult;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class MemberBulkRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBulkRepository memberBulkRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    Member first;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 25; ++i) {
+            Member member = new Member("member" + i, i, i % 2 == 0 ? teamA : teamB);
+            em.persist(member);
+            if (i == 0) {
+                first = member;
+            }
+        }
+    }
+
+    @Test
+    void addAgeInChunks() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        BulkMutationResult result = memberBulkRepository.addAge(condition, 100, 5);
+
+        assertThat(result.getRows()).isEqualTo(13);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(em.contains(first)).isFalse();
+        assertThat(memberRepository.findById(first.getId()).get().getAge()).isEqualTo(100);
+        assertThat(memberRepository.findByUsername("member1").get(0).getAge()).isEqualTo(1);
+    }
+
+    @Test
+    void updatedRowsLeavingConditionAreNotRevisited() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(9);
+
+        BulkMutationResult result = memberBulkRepository.addAge(condition, 1, 3);
+
+        assertThat(result.getRows()).isEqualTo(10);
+        assertThat(memberRepository.findByUsername("member9").get(0).getAge()).isEqualTo(10);
+    }
+
+    @Test
+    void deleteInChunks() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        BulkMutationResult result = memberBulkRepository.delete(condition, 2);
+
+        assertThat(result.getRows()).isEqualTo(5);
+        assertThat(memberRepository.findByUsername("member20")).isEmpty();
+        assertThat(memberRepository.findByUsername("member19")).hasSize(1);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
 
 @SpringBootTest
 @Transactional
@@ -52,4 +53,23 @@ class MemberJpaRepositoryTest {
         assertThat(result2).containsExactly(member);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fetchPlanTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        memberJpaRepository.save(new Member("member1", 10, teamA));
+        memberJpaRepository.save(new Member("member2", 20, teamA));
+        em.flush();
+        em.clear();
+
+        List<Member> lazy = memberJpaRepository.findAll_Querydsl(MemberFetchPlan.LAZY);
+        assertThat(lazy).extracting(m -> em.getEntityManagerFactory().getPersistenceUnitUtil()
+            .isLoaded(m.getTeam())).containsOnly(false);
+        em.clear();
+
+        List<Member> withTeam = memberJpaRepository.findAll_Querydsl(MemberFetchPlan.WITH_TEAM);
+        assertThat(withTeam).extracting(m -> em.getEntityManagerFactory().getPersistenceUnitUtil()
+            .isLoaded(m.getTeam())).containsOnly(true);
+    }
+}
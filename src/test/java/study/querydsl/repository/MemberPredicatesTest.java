@@ -0,0 +1,71 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+
+class MemberPredicatesTest {
+
+    @Test
+    void sameShapeForSameFieldsRegardlessOfValues() {
+        MemberSearchCondition first = condition("member1", "teamA", 10, null);
+        MemberSearchCondition second = condition("member2", "teamB", 30, null);
+
+        assertThat(MemberPredicates.shape(first)).isSameAs(MemberPredicates.shape(second));
+        assertThat(jpql(first)).isEqualTo(jpql(second));
+    }
+
+    @Test
+    void emptyStringsShareShapeWithNull() {
+        MemberSearchCondition empty = condition("", "", null, null);
+
+        assertThat(MemberPredicates.shape(empty)).isNull();
+        assertThat(jpql(empty)).isEqualTo(jpql(new MemberSearchCondition()));
+    }
+
+    @Test
+    void sixteenDistinctShapes() {
+        Set<String> shapes = new HashSet<>();
+        for (int mask = 0; mask < 16; mask++) {
+            shapes.add(jpql(condition(
+                (mask & 1) != 0 ? "member1" : null,
+                (mask & 2) != 0 ? "teamA" : null,
+                (mask & 4) != 0 ? 10 : null,
+                (mask & 8) != 0 ? 20 : null)));
+        }
+
+        assertThat(shapes).hasSize(16);
+    }
+
+    @Test
+    void bindsOnlyPresentValues() {
+        JPAQuery<Member> query = MemberPredicates.where(
+            new JPAQuery<Void>().select(member).from(member), condition(null, null, 10, 20));
+
+        assertThat(query.getMetadata().getParams())
+            .containsOnlyKeys(MemberPredicates.AGE_GOE, MemberPredicates.AGE_LOE)
+            .containsEntry(MemberPredicates.AGE_GOE, 10)
+            .containsEntry(MemberPredicates.AGE_LOE, 20);
+    }
+
+    private static String jpql(MemberSearchCondition condition) {
+        return MemberPredicates.filter(new JPAQuery<Void>().select(member).from(member), condition)
+            .toString();
+    }
+
+    private static MemberSearchCondition condition(String username, String teamName,
+        Integer ageGoe, Integer ageLoe) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setTeamName(teamName);
+        condition.setAgeGoe(ageGoe);
+        condition.setAgeLoe(ageLoe);
+        return condition;
+    }
+}
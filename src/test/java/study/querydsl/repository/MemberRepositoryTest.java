@@ -1,18 +1,26 @@
 package study.querydsl.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.metrics.StatementAssertions.assertAtMost;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.CursorSlice;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamColumns;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
+import study.querydsl.exception.InvalidRequestException;
+import study.querydsl.metrics.StatementCounter;
 
 @SpringBootTest
 @Transactional
@@ -62,4 +70,90 @@ class MemberRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void searchSliceTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 5; ++i) {
+            em.persist(new Member("member" + i, 10 + i % 2, teamA));
+        }
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        CursorSlice<MemberTeamDto> first = memberRepository.searchSlice(condition, Sort.unsorted(), null, 3);
+        assertThat(first.getContent()).extracting("username")
+            .containsExactly("member0", "member2", "member4");
+        assertThat(first.isHasNext()).isTrue();
+
+        CursorSlice<MemberTeamDto> second = memberRepository.searchSlice(condition,
+            Sort.by("age"), first.getNextCursor(), 3);
+        assertThat(second.getContent()).extracting("username")
+            .containsExactly("member1", "member3");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        assertThatThrownBy(() -> memberRepository.searchSlice(condition,
+            Sort.by(Sort.Order.desc("username")), null, 3))
+            .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    public void findWithTeamStatementCountTest() {
+
+        for (int t = 0; t < 3; ++t) {
+            Team team = new Team("team" + t);
+            em.persist(team);
+            em.persist(new Member("same", 10 + t, team));
+        }
+        em.flush();
+        em.clear();
+
+        // 엔티티 그래프로 team 을 함께 가져오므로 team 접근이 추가 쿼리를 만들지 않아야 한다
+        assertAtMost(StatementCounter.run(() -> memberRepository.findWithTeamByUsername("same")
+            .forEach(m -> m.getTeam().getName())), 1);
+    }
+
+    @Test
+    public void searchColumnsTest() {
+
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 5; ++i) {
+            em.persist(new Member("member" + i, 10 + i, teamA));
+        }
+        em.persist(new Member("noTeam", 99));
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        MemberTeamColumns columns = memberRepository.searchColumns(condition);
+        List<MemberTeamDto> dtos = memberRepository.search(condition);
+
+        assertThat(columns.size()).isEqualTo(dtos.size());
+        assertThat(columns.distinctTeamNames()).isEqualTo(1);
+        List<MemberTeamDto> fromColumns = new ArrayList<>();
+        for (MemberTeamColumns.Row row : columns) {
+            fromColumns.add(row.toDto());
+        }
+        assertThat(fromColumns).containsExactlyInAnyOrderElementsOf(dtos);
+    }
+
+    @Test
+    public void changeTeamEvictsPreviousTeamSearchTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member = new Member("member1", 10, teamA);
+        em.persist(member);
+        em.flush();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        assertThat(memberRepository.search(condition)).hasSize(1);
+
+        member.changeTeam(teamB);
+        em.flush();
+
+        assertThat(memberRepository.search(condition)).isEmpty();
+    }
+
+}
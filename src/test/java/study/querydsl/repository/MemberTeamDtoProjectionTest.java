@@ -0,0 +1,53 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.MemberTeamDtoProjection.MEMBER_TEAM_DTO;
+import static study.querydsl.repository.MemberTeamDtoProjection.memberTeamDto;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+class MemberTeamDtoProjectionTest {
+
+    @Test
+    void mapsRowInArgumentOrder() {
+        MemberTeamDto dto = MEMBER_TEAM_DTO.newInstance(1L, "member1", 10, 2L, "teamA");
+
+        assertThat(dto).isEqualTo(new MemberTeamDto(1L, "member1", 10, 2L, "teamA"));
+    }
+
+    @Test
+    void rendersSameSelectAsQueryProjection() {
+        String direct = new JPAQuery<Void>().select(MEMBER_TEAM_DTO)
+            .from(member).leftJoin(member.team, team).toString();
+        String constructor = new JPAQuery<Void>()
+            .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+            .from(member).leftJoin(member.team, team).toString();
+
+        assertThat(direct).isEqualTo(constructor);
+    }
+
+    @Test
+    void internsTeamNamePerTeamId() {
+        MemberTeamDtoProjection projection = memberTeamDto();
+
+        MemberTeamDto first = projection.newInstance(1L, "member1", 10, 2L, new String("teamA"));
+        MemberTeamDto second = projection.newInstance(2L, "member2", 20, 2L, new String("teamA"));
+        MemberTeamDto other = projection.newInstance(3L, "member3", 30, 3L, new String("teamA"));
+
+        assertThat(second.getTeamName()).isSameAs(first.getTeamName());
+        assertThat(other.getTeamName()).isNotSameAs(first.getTeamName());
+    }
+
+    @Test
+    void sharedProjectionDoesNotIntern() {
+        MemberTeamDto first = MEMBER_TEAM_DTO.newInstance(1L, "member1", 10, 2L, new String("teamA"));
+        MemberTeamDto second = MEMBER_TEAM_DTO.newInstance(2L, "member2", 20, 2L, new String("teamA"));
+
+        assertThat(second.getTeamName()).isNotSameAs(first.getTeamName());
+    }
+}
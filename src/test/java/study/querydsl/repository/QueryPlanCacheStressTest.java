@@ -0,0 +1,119 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.metrics.QueryPlanCacheMetrics;
+
+// 무작위 검색 조건/정렬/IN 절 크기로 쿼리를 쏟아부어도 쿼리 계획 캐시가 조합 수 이상 커지지 않고 적중률이 유지되는지 본다
+// 결과 캐시가 쿼리를 가리지 않도록 검색/카운트 캐시는 끈다
+@SpringBootTest(properties = {
+    "querydsl.search-cache.enabled=false",
+    "querydsl.count-cache.enabled=false"
+})
+@Transactional
+class QueryPlanCacheStressTest {
+
+    private static final Sort[] SORTS = {
+        Sort.unsorted(),
+        Sort.by(Direction.ASC, "age"), Sort.by(Direction.DESC, "age"),
+        Sort.by(Direction.ASC, "username"), Sort.by(Direction.DESC, "username"),
+        Sort.by(Direction.DESC, "id")
+    };
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void randomizedSearchesKeepPlanCacheBoundedAndWarm() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 50; ++i) {
+            em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+
+        SessionFactoryImplementor sessionFactory =
+            entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; ++i) {
+            fireRandomQuery(random);
+        }
+        statistics.clear();
+        for (int i = 0; i < 2000; ++i) {
+            fireRandomQuery(random);
+        }
+
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        assertThat(hits + misses).isGreaterThan(0);
+        assertThat((double) hits / (hits + misses)).isGreaterThan(0.95);
+
+        // 조합 16 x 정렬 6 + 카운트 16 + 패딩된 IN 절 크기 8 + 기타 몇 개
+        Map<?, ?> plans = QueryPlanCacheMetrics.planMap(sessionFactory.getQueryPlanCache());
+        if (plans != null) {
+            assertThat(plans.size()).isLessThan(300);
+        }
+    }
+
+    private void fireRandomQuery(Random random) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (random.nextBoolean()) {
+            condition.setUsername("member" + random.nextInt(50));
+        }
+        if (random.nextBoolean()) {
+            condition.setTeamName(random.nextBoolean() ? "teamA" : "teamB");
+        }
+        if (random.nextBoolean()) {
+            condition.setAgeGoe(random.nextInt(50));
+        }
+        if (random.nextBoolean()) {
+            condition.setAgeLoe(random.nextInt(50));
+        }
+
+        switch (random.nextInt(3)) {
+            case 0:
+                memberRepository.search(condition);
+                break;
+            case 1:
+                memberRepository.searchPageComplex(condition,
+                    PageRequest.of(random.nextInt(3), 5, SORTS[random.nextInt(SORTS.length)]));
+                break;
+            default:
+                int size = 1 + random.nextInt(100);
+                List<Long> ids = new ArrayList<>(size);
+                for (int i = 0; i < size; ++i) {
+                    ids.add((long) random.nextInt(1000));
+                }
+                memberRepository.findAllById(ids);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Test
+    void findByName() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Team("teamB"));
+        em.flush();
+        em.clear();
+
+        Optional<Team> found = teamRepository.findByName("teamA");
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getId()).isEqualTo(teamA.getId());
+        assertThat(teamRepository.findByName("teamC")).isEmpty();
+    }
+}
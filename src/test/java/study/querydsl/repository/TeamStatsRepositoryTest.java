@@ -0,0 +1,70 @@
+package study.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class TeamStatsRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 15, teamA));
+        em.persist(new Member("member3", 21, teamA));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("noTeam", 50));
+    }
+
+    @Test
+    void groupsByTeam() {
+        List<TeamStatsDto> stats = teamStatsRepository.stats(new MemberSearchCondition(), 10);
+
+        assertThat(stats).extracting("teamName").containsExactly("teamA", "teamB");
+
+        TeamStatsDto teamA = stats.get(0);
+        assertThat(teamA.getMemberCount()).isEqualTo(3);
+        assertThat(teamA.getAvgAge()).isCloseTo(15.33, within(0.01));
+        assertThat(teamA.getMinAge()).isEqualTo(10);
+        assertThat(teamA.getMaxAge()).isEqualTo(21);
+        assertThat(teamA.getAgeHistogram()).containsExactly(entry(10, 2L), entry(20, 1L));
+
+        assertThat(stats.get(1).getAgeHistogram()).containsExactly(entry(40, 1L));
+    }
+
+    @Test
+    void appliesSearchCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+        condition.setTeamName("teamA");
+
+        List<TeamStatsDto> stats = teamStatsRepository.stats(condition, 5);
+
+        assertThat(stats).hasSize(1);
+        assertThat(stats.get(0).getMemberCount()).isEqualTo(2);
+        assertThat(stats.get(0).getAgeHistogram()).containsExactly(entry(15, 1L), entry(20, 1L));
+    }
+}
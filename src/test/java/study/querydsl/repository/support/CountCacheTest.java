@@ -0,0 +1,41 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+
+class CountCacheTest {
+
+    CountCache countCache = new CountCache(null, null, true, Duration.ofMinutes(1), 100, 0,
+        Duration.ofMinutes(10), "");
+
+    @Test
+    void cachesByNormalizedCondition() {
+        AtomicLong calls = new AtomicLong();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("");
+        MemberSearchCondition same = new MemberSearchCondition();
+
+        long first = countCache.count(condition.normalize(), () -> calls.incrementAndGet() * 10);
+        long second = countCache.count(same.normalize(), () -> calls.incrementAndGet() * 10);
+
+        assertThat(first).isEqualTo(10);
+        assertThat(second).isEqualTo(10);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateForcesRecount() {
+        AtomicLong calls = new AtomicLong();
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        countCache.count(condition, calls::incrementAndGet);
+        countCache.invalidate();
+        long count = countCache.count(condition, calls::incrementAndGet);
+
+        assertThat(count).isEqualTo(2);
+    }
+}
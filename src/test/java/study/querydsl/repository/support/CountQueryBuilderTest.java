@@ -0,0 +1,51 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.repository.support.CountQueryBuilder.countFrom;
+
+import com.querydsl.core.JoinType;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import study.querydsl.entity.Member;
+
+class CountQueryBuilderTest {
+
+    JPAQueryFactory queryFactory = new JPAQueryFactory(JPQLTemplates.DEFAULT, (EntityManager) null);
+
+    @Test
+    void dropsJoinWhenPredicatesOnlyUseRoot() {
+        JPAQuery<Member> query = countFrom(queryFactory, member)
+            .leftJoinToOne(member.team, team)
+            .where(member.age.goe(10), null, member.username.eq("member1"))
+            .build();
+
+        assertThat(query.getMetadata().getJoins()).hasSize(1);
+    }
+
+    @Test
+    void keepsJoinWhenPredicateUsesAlias() {
+        JPAQuery<Member> query = countFrom(queryFactory, member)
+            .leftJoinToOne(member.team, team)
+            .where(member.age.goe(10), team.name.isNull().or(team.name.eq("teamA")))
+            .build();
+
+        assertThat(query.getMetadata().getJoins()).hasSize(2);
+        assertThat(query.getMetadata().getJoins().get(1).getType()).isEqualTo(JoinType.LEFTJOIN);
+    }
+
+    @Test
+    void turnsNullRejectedJoinIntoInnerJoin() {
+        JPAQuery<Member> query = countFrom(queryFactory, member)
+            .leftJoinToOne(member.team, team)
+            .where(member.age.goe(10), team.name.eq("teamA"))
+            .build();
+
+        assertThat(query.getMetadata().getJoins()).hasSize(2);
+        assertThat(query.getMetadata().getJoins().get(1).getType()).isEqualTo(JoinType.JOIN);
+    }
+}
@@ -0,0 +1,92 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+class LocalSearchResultCacheTest {
+
+    LocalSearchResultCache cache = new LocalSearchResultCache(2, Duration.ofMinutes(1));
+
+    AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void hitAndMiss() {
+        cache.get(condition("teamA"), loader(1L));
+        cache.get(condition("teamA"), loader(1L));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverMaxSize() {
+        cache.get(condition("teamA"), loader(1L));
+        cache.get(condition("teamB"), loader(2L));
+        cache.get(condition("teamA"), loader(1L));
+        cache.get(condition("teamC"), loader(3L));
+
+        cache.get(condition("teamB"), loader(2L));
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void evictTeamOnlyRemovesAffectedEntries() {
+        cache.get(condition("teamA"), loader(1L));
+        cache.get(condition("teamB"), loader(2L));
+
+        cache.evictTeam(1L, "teamA");
+
+        cache.get(condition("teamB"), loader(2L));
+        cache.get(condition("teamA"), loader(1L));
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotStoreResultLoadedAcrossInvalidation() {
+        Supplier<List<MemberTeamDto>> staleLoader = () -> {
+            loads.incrementAndGet();
+            cache.evictTeam(1L, "teamA");
+            return Collections.singletonList(new MemberTeamDto(1L, "member1", 10, 1L, "team"));
+        };
+
+        cache.get(condition("teamA"), staleLoader);
+        cache.get(condition("teamA"), loader(1L));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    @Test
+    void callersDoNotShareCachedRows() {
+        cache.get(condition("teamA"), loader(1L)).get(0).setUsername("changed");
+        cache.get(condition("teamA"), loader(1L)).get(0).setUsername("changed again");
+
+        assertThat(cache.get(condition("teamA"), loader(1L)).get(0).getUsername())
+            .isEqualTo("member1");
+    }
+
+    private MemberSearchCondition condition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+
+    private Supplier<List<MemberTeamDto>> loader(Long teamId) {
+        return () -> {
+            loads.incrementAndGet();
+            return Collections.singletonList(new MemberTeamDto(1L, "member1", 10, teamId, "team"));
+        };
+    }
+}
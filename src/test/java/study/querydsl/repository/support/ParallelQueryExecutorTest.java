@@ -0,0 +1,118 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class ParallelQueryExecutorTest {
+
+    @Autowired
+    ParallelQueryExecutor parallelQueryExecutor;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void runsContentAndCountConcurrently() {
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+        CountDownLatch contentStarted = new CountDownLatch(1);
+
+        // count 는 content 가 시작될 때까지 기다린다 - 순차 실행이었다면 호출 스레드에서 실행됐을 것
+        Page<String> page = parallelQueryExecutor.page(PageRequest.of(1, 2),
+            () -> {
+                contentStarted.countDown();
+                return Arrays.asList("a", "b");
+            },
+            () -> {
+                try {
+                    contentStarted.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                countThread.set(Thread.currentThread());
+                return 10;
+            });
+
+        assertThat(page.getContent()).containsExactly("a", "b");
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(countThread.get()).isNotSameAs(caller);
+    }
+
+    @Test
+    void runsSequentiallyInsideWriteTransaction() {
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+        Thread caller = Thread.currentThread();
+
+        new TransactionTemplate(transactionManager).execute(status ->
+            parallelQueryExecutor.page(PageRequest.of(1, 2),
+                () -> Arrays.asList("a", "b"),
+                () -> {
+                    countThread.set(Thread.currentThread());
+                    return 10;
+                }));
+
+        assertThat(countThread.get()).isSameAs(caller);
+    }
+
+    @Test
+    void propagatesCountFailure() {
+        assertThatThrownBy(() -> parallelQueryExecutor.page(PageRequest.of(1, 2),
+            () -> Arrays.asList("a", "b"),
+            () -> {
+                throw new IllegalStateException("count failed");
+            }))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("count failed");
+    }
+
+    @Test
+    void skipsCountOnLastPartialPage() {
+        List<String> content = Arrays.asList("a");
+
+        Page<String> page = parallelQueryExecutor.page(PageRequest.of(0, 2),
+            () -> content, () -> 99);
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void waitsForTimedOutCountInsteadOfCountingAgain() {
+        ParallelQueryExecutor executor = new ParallelQueryExecutor(transactionManager, true, 2, 10,
+            Duration.ofMillis(50), Duration.ofSeconds(5));
+        AtomicInteger counts = new AtomicInteger();
+        try {
+            Page<String> page = executor.page(PageRequest.of(1, 2),
+                () -> Arrays.asList("a", "b"),
+                () -> {
+                    counts.incrementAndGet();
+                    try {
+                        Thread.sleep(300);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return 10;
+                });
+
+            assertThat(page.getTotalElements()).isEqualTo(10);
+            assertThat(counts.get()).isEqualTo(1);
+        } finally {
+            executor.destroy();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class SortTranslatorTest {
+
+    SortTranslator translator = SortTranslator.builder(member.id)
+        .add("id", member.id)
+        .add("age", member.age)
+        .build();
+
+    @Test
+    void appendsTiebreaker() {
+        assertThat(translator.translate(Sort.by(Sort.Order.desc("age"))))
+            .containsExactly(member.age.desc(), member.id.asc());
+        assertThat(translator.translate(Sort.unsorted()))
+            .containsExactly(member.id.asc());
+    }
+
+    @Test
+    void stopsAtUniqueKey() {
+        assertThat(translator.translate(Sort.by(Sort.Order.desc("id"), Sort.Order.asc("age"))))
+            .containsExactly(member.id.desc());
+    }
+
+    @Test
+    void rejectsUnknownProperty() {
+        assertThatThrownBy(() -> translator.translate(Sort.by("username")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,161 @@
+package study.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.TeamSummaryDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberBulkRepository;
+import study.querydsl.repository.TeamStatsRepository;
+
+// 증분은 커밋된 뒤에 반영되므로 데이터를 커밋하고 끝나면 지운다
+@SpringBootTest
+class TeamStatsListenerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    MemberBulkRepository memberBulkRepository;
+
+    TransactionTemplate transactionTemplate;
+
+    Long teamAId;
+    Long teamBId;
+    Long member1Id;
+    Long member2Id;
+    Long member3Id;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            Team teamA = new Team("statsTeamA");
+            Team teamB = new Team("statsTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member1 = new Member("stats1", 10, teamA);
+            Member member2 = new Member("stats2", 20, teamA);
+            Member member3 = new Member("stats3", 30, teamB);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(member3);
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+            member1Id = member1.getId();
+            member2Id = member2.getId();
+            member3Id = member3.getId();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m where m.team.id in "
+                + "(select t.id from Team t where t.name like 'statsTeam%')").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'statsTeam%'").executeUpdate();
+            return null;
+        });
+        teamStatsRepository.reconcile();
+    }
+
+    @Test
+    void tracksPersistUpdateChangeTeamAndRemove() {
+        assertSummary(teamAId, 2, 15.0);
+        assertSummary(teamBId, 1, 30.0);
+
+        transactionTemplate.execute(status -> {
+            em.find(Member.class, member1Id).changeTeam(em.find(Team.class, teamBId));
+            em.find(Member.class, member2Id).setAge(40);
+            return null;
+        });
+        assertSummary(teamAId, 1, 40.0);
+        assertSummary(teamBId, 2, 20.0);
+
+        transactionTemplate.execute(status -> {
+            em.remove(em.find(Member.class, member3Id));
+            return null;
+        });
+        assertSummary(teamBId, 1, 10.0);
+
+        teamStatsRepository.reconcile();
+        assertSummary(teamAId, 1, 40.0);
+        assertSummary(teamBId, 1, 10.0);
+    }
+
+    @Test
+    void rolledBackChangesAreNotApplied() {
+        transactionTemplate.execute(status -> {
+            em.find(Member.class, member2Id).setAge(99);
+            em.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertSummary(teamAId, 2, 15.0);
+    }
+
+    // open-in-view 처럼 트랜잭션 밖에서 읽은 엔티티를 트랜잭션 안에서 수정한다
+    @Test
+    void tracksEntityLoadedOutsideTransaction() {
+        EntityManager viewEm = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(viewEm));
+        try {
+            Member member2 = em.find(Member.class, member2Id);
+            transactionTemplate.execute(status -> {
+                member2.setAge(40);
+                return null;
+            });
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            viewEm.close();
+        }
+
+        assertSummary(teamAId, 2, 25.0);
+    }
+
+    @Test
+    void bulkMutationAppliesChunkDeltas() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("statsTeamA");
+
+        memberBulkRepository.addAge(condition, 5, 1);
+        assertSummary(teamAId, 2, 20.0);
+        assertSummary(teamBId, 1, 30.0);
+
+        memberBulkRepository.delete(condition, 1);
+        assertSummary(teamAId, 0, null);
+        assertSummary(teamBId, 1, 30.0);
+    }
+
+    private void assertSummary(Long teamId, long memberCount, Double avgAge) {
+        TeamSummaryDto summary = teamStatsRepository.summaries().stream()
+            .filter(s -> s.getTeamId().equals(teamId))
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+        assertThat(summary.getMemberCount()).isEqualTo(memberCount);
+        assertThat(summary.getAvgAge()).isEqualTo(avgAge);
+    }
+}
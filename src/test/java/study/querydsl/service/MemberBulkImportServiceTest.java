@@ -0,0 +1,69 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.BulkImportResult;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+@SpringBootTest
+@Transactional
+class MemberBulkImportServiceTest {
+
+    @Autowired
+    MemberBulkImportService memberBulkImportService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void importCsv() {
+        String csv = "username,age,teamName\n"
+            + "member1,10,teamA\n"
+            + "\n"
+            + "member2,20,teamA\n"
+            + "member3,30,\n";
+
+        BulkImportResult result = memberBulkImportService.importCsv(new StringReader(csv));
+
+        assertThat(result.getRows()).isEqualTo(3);
+        List<Member> members = memberRepository.findByUsername("member2");
+        assertThat(members).hasSize(1);
+        assertThat(members.get(0).getTeam().getName()).isEqualTo("teamA");
+        assertThat(memberRepository.findByUsername("member3").get(0).getTeam()).isNull();
+    }
+
+    @Test
+    void importCsvKeepsDataRowLookingLikeHeader() {
+        String csv = " USERNAME , Age, teamName\n"
+            + "username1,10,teamA\n";
+
+        BulkImportResult result = memberBulkImportService.importCsv(new StringReader(csv));
+
+        assertThat(result.getRows()).isEqualTo(1);
+        assertThat(memberRepository.findByUsername("username1")).hasSize(1);
+    }
+
+    @Test
+    void importCsvWithoutHeader() {
+        BulkImportResult result = memberBulkImportService.importCsv(
+            new StringReader("username1,10,teamA\n"));
+
+        assertThat(result.getRows()).isEqualTo(1);
+        assertThat(memberRepository.findByUsername("username1")).hasSize(1);
+    }
+
+    @Test
+    void importGenerated() {
+        BulkImportResult result = memberBulkImportService.importGenerated(3, 120);
+
+        assertThat(result.getRows()).isEqualTo(120);
+        assertThat(memberRepository.findByUsername("member119")).hasSize(1);
+    }
+}
@@ -0,0 +1,61 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member,2", 20, teamA));
+        em.persist(new Member("member3", 30));
+    }
+
+    @Test
+    void exportNdjson() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        StringWriter writer = new StringWriter();
+
+        long rows = memberExportService.exportNdjson(condition, writer);
+
+        assertThat(rows).isEqualTo(2);
+        String[] lines = writer.toString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"username\":\"member1\"", "\"teamName\":\"teamA\"");
+    }
+
+    @Test
+    void exportCsv() throws Exception {
+        StringWriter writer = new StringWriter();
+
+        long rows = memberExportService.exportCsv(new MemberSearchCondition(), writer);
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(writer.toString())
+            .startsWith("memberId,username,age,teamId,teamName\n")
+            .contains(",\"member,2\",20,")
+            .contains(",member3,30,,\n");
+    }
+}
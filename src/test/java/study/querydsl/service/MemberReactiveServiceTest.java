@@ -0,0 +1,173 @@
+package study.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Scheduler;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+// 별도 EntityManager 로 읽으므로 데이터를 커밋하고 끝나면 지운다
+@SpringBootTest
+class MemberReactiveServiceTest {
+
+    @Autowired
+    MemberReactiveService memberReactiveService;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    Scheduler memberQueryScheduler;
+
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            Team team = new Team("reactiveTeam");
+            em.persist(team);
+            for (int i = 0; i < 30; ++i) {
+                em.persist(new Member("reactive" + i, i, team));
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.execute(status -> {
+            em.createQuery("delete from Member m where m.team.id in "
+                + "(select t.id from Team t where t.name = 'reactiveTeam')").executeUpdate();
+            em.createQuery("delete from Team t where t.name = 'reactiveTeam'").executeUpdate();
+            return null;
+        });
+    }
+
+    @Test
+    void streamsAllRows() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("reactiveTeam");
+        condition.setAgeGoe(10);
+
+        List<MemberTeamDto> result = memberReactiveService.search(condition).collectList().block();
+
+        assertThat(result).hasSize(20);
+        assertThat(result).extracting("teamName").containsOnly("reactiveTeam");
+    }
+
+    @Test
+    void cancelClosesCursorOnWorker() throws InterruptedException {
+        AtomicReference<Thread> closedOn = new AtomicReference<>();
+        CountDownLatch closed = new CountDownLatch(1);
+        // 커서의 EntityManager 가 닫히는 스레드를 기록하는 EntityManagerFactory 로 서비스를 따로 만든다
+        MemberReactiveService service = new MemberReactiveService(
+            closeRecording(entityManagerFactory, closedOn, closed), memberJpaRepository,
+            memberRepository, memberQueryScheduler, 500);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("reactiveTeam");
+        CountDownLatch received = new CountDownLatch(1);
+        BaseSubscriber<MemberTeamDto> subscriber = new BaseSubscriber<MemberTeamDto>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(MemberTeamDto value) {
+                received.countDown();
+            }
+        };
+
+        service.search(condition).subscribe(subscriber);
+        assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+        // 요청 스레드 역할인 테스트 스레드에서 취소한다
+        subscriber.dispose();
+
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(closedOn.get()).isNotSameAs(Thread.currentThread());
+        assertThat(closedOn.get().getName()).startsWith("member-query");
+
+        List<MemberTeamDto> all = memberReactiveService.search(condition).collectList().block();
+        assertThat(all).hasSize(30);
+    }
+
+    @Test
+    void searchPage() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("reactiveTeam");
+
+        Page<MemberTeamDto> page = memberReactiveService
+            .searchPage(condition, PageRequest.of(0, 10)).block();
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(30);
+    }
+
+    private static EntityManagerFactory closeRecording(EntityManagerFactory target,
+        AtomicReference<Thread> closedOn, CountDownLatch closed) {
+        return (EntityManagerFactory) Proxy.newProxyInstance(
+            EntityManagerFactory.class.getClassLoader(), new Class<?>[]{EntityManagerFactory.class},
+            (factoryProxy, factoryMethod, factoryArgs) -> {
+                Object result = invoke(target, factoryMethod, factoryArgs);
+                if (!factoryMethod.getName().equals("createEntityManager")) {
+                    return result;
+                }
+                EntityManager em = (EntityManager) result;
+                return Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                    new Class<?>[]{EntityManager.class}, (emProxy, method, args) -> {
+                        Object value = invoke(em, method, args);
+                        if (method.getName().equals("close")) {
+                            closedOn.set(Thread.currentThread());
+                            closed.countDown();
+                        }
+                        return value;
+                    });
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args)
+        throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}